@@ -2,9 +2,11 @@ package com.schedule.core.Graphs;
 
 import com.schedule.core.Graphs.FeasibleSchedules.Config.BenchmarkLowerBounds;
 import com.schedule.core.Graphs.FeasibleSchedules.DataGenerator.SchedulesBuilder;
+import com.schedule.core.Graphs.FeasibleSchedules.Patterns.ImprovementEventBus;
 import com.schedule.core.Graphs.FeasibleSchedules.Patterns.OptimalSchedule;
 import com.schedule.core.Graphs.FeasibleSchedules.Service.*;
 import com.schedule.core.Graphs.FeasibleSchedules.Model.Core.Schedule;
+import com.schedule.core.Graphs.FeasibleSchedules.Threads.SolverRuntime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -17,30 +19,47 @@ public class Execution {
 
     private static final Logger LOG = LoggerFactory.getLogger(Execution.class);
 
-    private static final LocalSearchService localSearchService = new LocalSearchService();
+    /** {@link SolverRuntime} every phase runs on. */
+    private static final SolverRuntime solverRuntime = new SolverRuntime();
+
+    private static final LocalSearchService localSearchService = new LocalSearchService(solverRuntime);
 
     private static final ScheduleService scheduleService = new ScheduleService();
 
     /** {@link SchedulesBuilder}. */
     private static final SchedulesBuilder schedulesBuilder = new SchedulesBuilder();
 
-    private static final OptimalSchedule optimalSchedule = new OptimalSchedule();
+    private static final OptimalSchedule optimalSchedule = new OptimalSchedule(
+            new ImprovementEventBus(solverRuntime.getDispatcher()));
 
     private static final FireflyService fireflyService = new FireflyService(optimalSchedule);
 
     private static final SimulatedAnnealingService simulatedAnnealingService = new SimulatedAnnealingService
-            (optimalSchedule);
+            (optimalSchedule, solverRuntime);
 
     private static final SAFAService safaService = new SAFAService(fireflyService, simulatedAnnealingService,
-                                                                   optimalSchedule);
+                                                                   optimalSchedule, solverRuntime);
 
     public static void main(String[] args) {
 
+        try {
+            optimise("ft06");
+        } finally {
+            solverRuntime.close();
+        }
+    }
+
+    /**
+     * Runs every phase on a benchmark instance.
+     *
+     * @param benchmarkInstance
+     *         Benchmark instance.
+     */
+    private static void optimise(final String benchmarkInstance) {
+
         optimalSchedule.addObserver(simulatedAnnealingService);
         optimalSchedule.addObserver(safaService);
 
-        final String benchmarkInstance = "ft06";
-
         // Generate Schedules
         final Set<Schedule> scheduleSet = schedulesBuilder.generateStartingSchedules(benchmarkInstance, 200);
 
@@ -1,8 +1,9 @@
 package com.schedule.core.Graphs.FeasibleSchedules.DataGenerator;
 
 import com.schedule.core.Graphs.FeasibleSchedules.Config.FileDataPaths;
-import com.schedule.core.Graphs.FeasibleSchedules.Model.Core.Operation;
+import com.schedule.core.Graphs.FeasibleSchedules.Model.Core.ProblemInstance;
 import com.schedule.core.Graphs.FeasibleSchedules.Model.Core.Schedule;
+import com.schedule.core.Graphs.FeasibleSchedules.Model.Other.SolverRandom;
 import com.schedule.core.Graphs.FeasibleSchedules.Service.ScheduleService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,6 +11,7 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class SchedulesBuilder {
 
@@ -18,16 +20,43 @@ public class SchedulesBuilder {
 
     private ScheduleService scheduleService = new ScheduleService();
 
+    /** Instances already read, shared by every schedule built from them. */
+    private final Map<String, ProblemInstance> problemInstances = new ConcurrentHashMap<>();
+
+    /** {@link SolverRandom} random schedules are drawn from. */
+    private final SolverRandom solverRandom;
+
+    /**
+     * Constructor, drawing from the shared {@link SolverRandom}.
+     */
+    public SchedulesBuilder() {
+        this(SolverRandom.getShared());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param solverRandom
+     *         {@link SolverRandom} random schedules are drawn from.
+     */
+    public SchedulesBuilder(final SolverRandom solverRandom) {
+        this.solverRandom = solverRandom;
+    }
+
     public Set<Schedule> generateStartingSchedules(final String benchmarkInstance,
                                                    final Integer setSize) {
 
         final Set<Schedule> startingScheduleSet = new HashSet<>();
 
+        //One stream per population, so the population only depends on the seed and the calls before it
+        final SplittableRandom random = solverRandom.split();
+
         Integer[][][] jobset = getBenchmarkInstance(benchmarkInstance);
+        final ProblemInstance problemInstance = getProblemInstance(benchmarkInstance);
 
         while (startingScheduleSet.size() != setSize) {
 
-            startingScheduleSet.add(buildRandomSchedules(jobset));
+            startingScheduleSet.add(buildRandomSchedules(problemInstance, jobset, random));
 
         }
 
@@ -61,10 +90,11 @@ public class SchedulesBuilder {
         final Set<Schedule> startingScheduleSet = new HashSet<>();
 
         Integer[][][] jobset = getBenchmarkInstance(benchmarkInstance);
+        final ProblemInstance problemInstance = getProblemInstance(benchmarkInstance);
 
         while (startingScheduleSet.size() != setSize) {
 
-            startingScheduleSet.add(buildTestSchedules(jobset, randomTestValues));
+            startingScheduleSet.add(buildTestSchedules(problemInstance, jobset, randomTestValues));
 
             LOG.trace("Set size: {} Starting schedule size: {}", setSize, startingScheduleSet.size());
         }
@@ -72,16 +102,15 @@ public class SchedulesBuilder {
         return startingScheduleSet;
     }
 
-    private Schedule buildRandomSchedules(final Integer[][][] jobset) {
+    private Schedule buildRandomSchedules(final ProblemInstance problemInstance, final Integer[][][] jobset,
+                                          final SplittableRandom rand) {
 
         final Integer numMachines = jobset[0].length;
         final Integer numJobs = jobset.length;
 
-        final Schedule schedule = generateTreeTemplate(jobset, numMachines, numJobs);
+        final Schedule schedule = new Schedule(problemInstance);
 
         //Generate random staticSchedule
-        final Random rand = new Random();
-
         Integer[] count = new Integer[numJobs];
         for (Integer i = 0; i < count.length; i++) {
             count[i] = 0;
@@ -110,12 +139,13 @@ public class SchedulesBuilder {
         return schedule;
     }
 
-    private Schedule buildTestSchedules(final Integer[][][] jobset, final Integer[] randomTestValues) {
+    private Schedule buildTestSchedules(final ProblemInstance problemInstance, final Integer[][][] jobset,
+                                        final Integer[] randomTestValues) {
 
         final Integer numMachines = jobset[0].length;
         final Integer numJobs = jobset.length;
 
-        final Schedule schedule = generateTreeTemplate(jobset, numMachines, numJobs);
+        final Schedule schedule = new Schedule(problemInstance);
 
         Integer[] count = new Integer[numJobs];
         for (Integer i = 0; i < count.length; i++) {
@@ -152,29 +182,18 @@ public class SchedulesBuilder {
         return schedule;
     }
 
-    private Schedule generateTreeTemplate(final Integer[][][] jobset, final Integer numMachines,
-                                          final Integer numJobs) {
-
-        final Schedule schedule = new Schedule(numMachines, numJobs);
-
-        Integer jobValue = 0;
-        Integer taskValue = 0;
-        for (final Integer[][] jobs : jobset) {
-
-            for (final Integer[] job : jobs) {
-
-                LOG.trace("Adding operation: J:{}, M: {}, PT: {}", jobValue, job[0], job[1]);
-
-                final Operation operation = new Operation(taskValue, jobValue, job[0]);
-
-                schedule.addVertex(job[1], operation);
-                taskValue++;
-            }
-
-            jobValue++;
-        }
-
-        return schedule;
+    /**
+     * Gets routings and processing times of a benchmark instance, reading them once and sharing them between every
+     * schedule built.
+     *
+     * @param instance
+     *         Benchmark instance name.
+     * @return {@link ProblemInstance}
+     */
+    public ProblemInstance getProblemInstance(final String instance) {
+
+        return problemInstances.computeIfAbsent(instance,
+                                                name -> ProblemInstance.fromJobset(getBenchmarkInstance(name)));
     }
 
     public Integer[][][] getBenchmarkInstance(final String instance) {
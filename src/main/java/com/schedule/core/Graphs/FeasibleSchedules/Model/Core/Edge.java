@@ -148,6 +148,30 @@ public class Edge implements Serializable {
         setProcessingTime(operationFrom.getProcessingTime());
     }
 
+    /**
+     * Copies edge between copies of its operations holding only their identity, so the copy equals this edge without
+     * keeping the schedule graph reachable.
+     *
+     * @return {@link Edge}
+     */
+    public Edge detach() {
+
+        return new Edge(detach(operationFrom), detach(operationTo), processingTime);
+    }
+
+    /**
+     * Copies identity of an operation.
+     *
+     * @param operation
+     *         {@link Operation}, may be null.
+     * @return {@link Operation} without edges, null if none given.
+     */
+    private static Operation detach(final Operation operation) {
+
+        return operation == null ? null
+                : new Operation(operation.getId(), operation.getJob(), operation.getMachine());
+    }
+
     @Override
     public boolean equals(final Object obj) {
 
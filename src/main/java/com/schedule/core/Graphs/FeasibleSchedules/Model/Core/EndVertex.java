@@ -1,8 +1,6 @@
 package com.schedule.core.Graphs.FeasibleSchedules.Model.Core;
 
 import java.io.Serializable;
-import java.util.HashSet;
-import java.util.Set;
 
 /**
  * End dummy vertex.
@@ -10,9 +8,9 @@ import java.util.Set;
 public class EndVertex extends Operation implements Serializable {
 
     /**
-     * End Edges.
+     * End Edges, indexed by job.
      */
-    public Set<Edge> endParentEdges;
+    private Edge[] endParentEdges;
 
     /**
      * Constructor.
@@ -22,40 +20,81 @@ public class EndVertex extends Operation implements Serializable {
      * @param job
      *         Job id.
      * @param machine
+     *         Machine id.
+     * @param numJobs
+     *         Number of jobs.
      */
-    public EndVertex(Integer id, Integer job, Integer machine) {
+    public EndVertex(Integer id, Integer job, Integer machine, final int numJobs) {
         super(id, job, machine);
 
-        endParentEdges = new HashSet<>();
+        endParentEdges = new Edge[numJobs];
     }
 
 
     /**
-     * Gets endEdges.
+     * Gets endEdges indexed by job, null for a job without operations.
      *
      * @return Value of endEdges.
      */
-    public Set<Edge> getEndParentEdges() {
+    public Edge[] getEndParentEdges() {
         return endParentEdges;
     }
 
     /**
-     * Sets new endEdges.
+     * Gets end edge of a job.
      *
-     * @param endParentEdges
-     *         New value of endParentEdges.
+     * @param job
+     *         Job.
+     * @return {@link Edge} or null if the job has no operations.
      */
-    public void getEndParentEdges(Set<Edge> endParentEdges) {
-        this.endParentEdges = endParentEdges;
+    public Edge getEndParentEdge(final int job) {
+        return endParentEdges[job];
     }
 
     public boolean hasEndParentEdges(){
-        return !endParentEdges.isEmpty();
+
+        for (final Edge edge : endParentEdges) {
+            if (edge != null) {
+                return true;
+            }
+        }
+        return false;
     }
 
     public void addEndParentEdge(final Edge endParentEdge) {
 
-        endParentEdges.removeIf(edge -> edge.getOperationFrom().getJob() == endParentEdge.getOperationFrom().getJob());
-        endParentEdges.add(endParentEdge);
+        endParentEdges[endParentEdge.getOperationFrom().getJob()] = endParentEdge;
+    }
+
+    /**
+     * Has end edges set.
+     *
+     * @return true/false
+     */
+    @Override
+    public boolean hasParentEdges() {
+        return hasEndParentEdges();
+    }
+
+    /**
+     * Gets number of incoming edge slots, one per job.
+     *
+     * @return Number of slots.
+     */
+    @Override
+    public int getParentEdgeSlots() {
+        return endParentEdges.length;
+    }
+
+    /**
+     * Gets end edge of the job in a slot.
+     *
+     * @param slot
+     *         Job.
+     * @return {@link Edge} or null if the job has no operations.
+     */
+    @Override
+    public Edge getParentEdge(final int slot) {
+        return endParentEdges[slot];
     }
 }
@@ -11,6 +11,9 @@ import java.util.*;
  */
 public class Operation implements Serializable {
 
+    /** Number of edge slots in each direction, one conjunctive and one disjunctive. */
+    public static final int EDGE_SLOTS = 2;
+
     /** Identifier. */
     private Integer id;
 
@@ -26,9 +29,6 @@ public class Operation implements Serializable {
     private Edge conjunctiveEdge;
     private Edge conjunctiveParent;
 
-    /** Disjunctive edge to other jobs task, same machine requirement. */
-    private ArrayList<Edge> inactiveDisjunctiveEdges;
-
     /**
      * Constructor.
      *
@@ -44,7 +44,6 @@ public class Operation implements Serializable {
         this.id = id;
         this.job = job;
         this.machine = machine;
-        inactiveDisjunctiveEdges = new ArrayList<>();
     }
 
     /**
@@ -140,36 +139,6 @@ public class Operation implements Serializable {
         this.job = job;
     }
 
-    /**
-     * Sets new Disjunctive edge to other jobs task, same machine requirement..
-     *
-     * @param inactiveDisjunctiveEdges
-     *         New value of Disjunctive edge to other jobs task, same machine requirement..
-     */
-    public void setInactiveDisjunctiveEdges(final ArrayList<Edge> inactiveDisjunctiveEdges) {
-        this.inactiveDisjunctiveEdges = inactiveDisjunctiveEdges;
-    }
-
-    /**
-     * Gets Disjunctive edge to other jobs task, same machine requirement..
-     *
-     * @return Value of Disjunctive edge to other jobs task, same machine requirement..
-     */
-    public ArrayList<Edge> getInactiveDisjunctiveEdges() {
-        return inactiveDisjunctiveEdges;
-    }
-
-    /**
-     * Adds new disjunctive edge.
-     *
-     * @param edge
-     *         {@link Edge}
-     */
-    public void addDisjunctiveEdge(final Edge edge) {
-
-        inactiveDisjunctiveEdges.add(edge);
-    }
-
     /**
      * Removes disjunctive edge.
      */
@@ -278,7 +247,47 @@ public class Operation implements Serializable {
     }
 
     /**
-     * Returns edges going out of vertex.
+     * Gets number of outgoing edge slots to visit with {@link #getActiveEdge(int)}.
+     *
+     * @return Number of slots.
+     */
+    public int getActiveEdgeSlots() {
+        return EDGE_SLOTS;
+    }
+
+    /**
+     * Gets outgoing edge in a slot, conjunctive edge first, without allocating.
+     *
+     * @param slot
+     *         Slot below {@link #getActiveEdgeSlots()}.
+     * @return {@link Edge} or null if the slot is empty.
+     */
+    public Edge getActiveEdge(final int slot) {
+        return slot == 0 ? conjunctiveEdge : disjunctiveEdge;
+    }
+
+    /**
+     * Gets number of incoming edge slots to visit with {@link #getParentEdge(int)}.
+     *
+     * @return Number of slots.
+     */
+    public int getParentEdgeSlots() {
+        return EDGE_SLOTS;
+    }
+
+    /**
+     * Gets incoming edge in a slot, conjunctive parent first, without allocating.
+     *
+     * @param slot
+     *         Slot below {@link #getParentEdgeSlots()}.
+     * @return {@link Edge} or null if the slot is empty.
+     */
+    public Edge getParentEdge(final int slot) {
+        return slot == 0 ? conjunctiveParent : disjunctiveParent;
+    }
+
+    /**
+     * Returns edges going out of vertex. Allocates a new set, traversals use {@link #getActiveEdge(int)}.
      *
      * @return Set of {@link Edge}
      */
@@ -305,7 +314,7 @@ public class Operation implements Serializable {
     }
 
     /**
-     * Returns edges going in to vertex.
+     * Returns edges going in to vertex. Allocates a new set, traversals use {@link #getParentEdge(int)}.
      *
      * @return Set of {@link Edge}
      */
@@ -332,15 +341,6 @@ public class Operation implements Serializable {
         return disjunctiveParent != null;
     }
 
-    /**
-     * Has disjunctive edges set.
-     *
-     * @return true/false
-     */
-    public boolean hasDisjunctiveEdges() {
-        return !inactiveDisjunctiveEdges.isEmpty();
-    }
-
     /**
      * Has parent edges set.
      *
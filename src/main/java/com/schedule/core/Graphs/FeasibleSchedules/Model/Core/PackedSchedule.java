@@ -0,0 +1,517 @@
+package com.schedule.core.Graphs.FeasibleSchedules.Model.Core;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Packed primitive-array representation of the disjunctive graph behind a {@link Schedule}.
+ * <p>
+ * Every array is indexed by operation id, the end vertex is implicit (an operation without job successor points to
+ * it) and {@link #NONE} marks a missing neighbour. Routings and processing times are read from the shared
+ * {@link ProblemInstance}, only machine sequences and timing are held per schedule.
+ */
+public class PackedSchedule implements Serializable {
+
+    /** Missing neighbour marker. */
+    public static final int NONE = -1;
+
+    /** Routings and processing times shared by every schedule of the instance. */
+    private final ProblemInstance problemInstance;
+
+    /** Number of jobs. */
+    private final int numJobs;
+
+    /** Number of machines. */
+    private final int numMachines;
+
+    /** Number of operations (end vertex excluded). */
+    private final int numOperations;
+
+    /** Next operation on the same machine. */
+    private final int[] machineSuccessor;
+
+    /** Previous operation on the same machine. */
+    private final int[] machinePredecessor;
+
+    /** Position of each operation in its machine sequence. */
+    private final int[] machinePosition;
+
+    /** Zobrist fingerprint of the machine sequences. */
+    private long fingerprint;
+
+    /** Head (earliest start time) of each operation. */
+    private final int[] heads;
+
+    /** Tail (longest path from operation end to end vertex) of each operation. */
+    private final int[] tails;
+
+    /** Operations in topological order. */
+    private final int[] topologicalOrder;
+
+    /** Position of each operation in {@link #topologicalOrder}. */
+    private final int[] topologicalPosition;
+
+    /** Whether the topological order matches the machine sequences. */
+    private boolean ordered;
+
+    /** Whether heads, tails and makespan match the machine sequences. */
+    private boolean timed;
+
+    /** Makespan of the machine sequences. */
+    private int makespan;
+
+    /** Whether the machine sequences form an acyclic graph. */
+    private boolean acyclic = true;
+
+    /**
+     * Constructor.
+     *
+     * @param problemInstance
+     *         {@link ProblemInstance} shared by every schedule of the instance.
+     */
+    public PackedSchedule(final ProblemInstance problemInstance) {
+
+        this.problemInstance = problemInstance;
+        this.numJobs = problemInstance.getNumJobs();
+        this.numMachines = problemInstance.getNumMachines();
+        this.numOperations = problemInstance.getNumOperations();
+
+        machineSuccessor = new int[numOperations];
+        machinePredecessor = new int[numOperations];
+        machinePosition = new int[numOperations];
+        heads = new int[numOperations];
+        tails = new int[numOperations];
+        topologicalOrder = new int[numOperations];
+        topologicalPosition = new int[numOperations];
+
+        Arrays.fill(machineSuccessor, NONE);
+        Arrays.fill(machinePredecessor, NONE);
+    }
+
+    /**
+     * Packs the graph of the given schedule.
+     *
+     * @param schedule
+     *         {@link Schedule}
+     * @return {@link PackedSchedule}
+     */
+    public static PackedSchedule fromSchedule(final Schedule schedule) {
+
+        final PackedSchedule packedSchedule = new PackedSchedule(schedule.getProblemInstance());
+        packedSchedule.readMachineSequences(schedule);
+
+        return packedSchedule;
+    }
+
+    /**
+     * Re-reads machine sequences from the schedule graph, e.g. after the graph was modified directly. The topological
+     * order is kept if the sequences did not change.
+     *
+     * @param schedule
+     *         {@link Schedule}
+     */
+    public void readMachineSequences(final Schedule schedule) {
+
+        timed = false;
+
+        boolean changed = false;
+        for (final Operation operation : schedule.getAllVertices()) {
+
+            final int id = operation.getId();
+            final int successor = operation.hasDisjunctiveEge()
+                    ? operation.getDisjunctiveEdge().getOperationTo().getId() : NONE;
+            final int predecessor = operation.hasDisjunctiveParent()
+                    ? operation.getDisjunctiveParent().getOperationFrom().getId() : NONE;
+
+            changed |= machineSuccessor[id] != successor || machinePredecessor[id] != predecessor;
+            machineSuccessor[id] = successor;
+            machinePredecessor[id] = predecessor;
+        }
+        if (changed) {
+            ordered = false;
+        }
+
+        for (int id = 0; id < numOperations; id++) {
+
+            if (machinePredecessor[id] != NONE) {
+                continue;
+            }
+            int position = 0;
+            for (int current = id; current != NONE && position < numJobs; current = machineSuccessor[current]) {
+                machinePosition[current] = position++;
+            }
+        }
+
+        fingerprint = 0L;
+        for (int id = 0; id < numOperations; id++) {
+            fingerprint ^= problemInstance.getZobristKey(id, machinePosition[id]);
+        }
+    }
+
+    /**
+     * Builds a new schedule graph with the routings and machine sequences held here.
+     *
+     * @return {@link Schedule}
+     */
+    public Schedule toSchedule() {
+
+        final Schedule schedule = new Schedule(problemInstance);
+
+        for (int id = 0; id < numOperations; id++) {
+
+            if (machinePredecessor[id] != NONE) {
+                continue;
+            }
+            Integer lastJob = null;
+            for (int current = id; current != NONE; current = machineSuccessor[current]) {
+
+                final int jobValue = problemInstance.getJob(current);
+                schedule.setActiveEdge(jobValue, lastJob, new Integer[]{problemInstance.getMachine(current),
+                        problemInstance.getProcessingTime(current)});
+                lastJob = jobValue;
+            }
+        }
+
+        return schedule;
+    }
+
+    /**
+     * Swaps two adjacent operations on a machine, mirroring {@code ScheduleService.switchEdge}.
+     *
+     * @param from
+     *         Operation currently first.
+     * @param to
+     *         Operation currently directly after {@code from}.
+     */
+    public void swapMachineOperations(final int from, final int to) {
+
+        if (machineSuccessor[from] != to) {
+            throw new IllegalStateException("Operation " + to + " does not directly follow " + from);
+        }
+
+        final int before = machinePredecessor[from];
+        final int after = machineSuccessor[to];
+
+        if (before != NONE) {
+            machineSuccessor[before] = to;
+        }
+        if (after != NONE) {
+            machinePredecessor[after] = from;
+        }
+
+        machinePredecessor[to] = before;
+        machineSuccessor[to] = from;
+        machinePredecessor[from] = to;
+        machineSuccessor[from] = after;
+
+        final int position = machinePosition[from];
+        fingerprint ^= problemInstance.getZobristKey(from, position) ^ problemInstance.getZobristKey(to, position + 1)
+                ^ problemInstance.getZobristKey(from, position + 1) ^ problemInstance.getZobristKey(to, position);
+        machinePosition[from] = machinePosition[to];
+        machinePosition[to] = position;
+    }
+
+    /**
+     * Copies machine sequences, fingerprint, topological order and timing into another mirror of the same instance.
+     *
+     * @param target
+     *         {@link PackedSchedule}
+     */
+    public void copyTo(final PackedSchedule target) {
+
+        System.arraycopy(machineSuccessor, 0, target.machineSuccessor, 0, numOperations);
+        System.arraycopy(machinePredecessor, 0, target.machinePredecessor, 0, numOperations);
+        System.arraycopy(machinePosition, 0, target.machinePosition, 0, numOperations);
+        System.arraycopy(heads, 0, target.heads, 0, numOperations);
+        System.arraycopy(tails, 0, target.tails, 0, numOperations);
+        System.arraycopy(topologicalOrder, 0, target.topologicalOrder, 0, numOperations);
+        System.arraycopy(topologicalPosition, 0, target.topologicalPosition, 0, numOperations);
+
+        target.fingerprint = fingerprint;
+        target.ordered = ordered;
+        target.timed = timed;
+        target.makespan = makespan;
+        target.acyclic = acyclic;
+    }
+
+    /**
+     * Checks both instances hold the same machine sequences.
+     *
+     * @param other
+     *         {@link PackedSchedule}
+     * @return true/false
+     */
+    public boolean hasSameMachineSequences(final PackedSchedule other) {
+
+        return Arrays.equals(machineSuccessor, other.machineSuccessor)
+                && Arrays.equals(machinePredecessor, other.machinePredecessor);
+    }
+
+    /**
+     * Gets routings and processing times shared by every schedule of the instance.
+     *
+     * @return {@link ProblemInstance}
+     */
+    public ProblemInstance getProblemInstance() {
+        return problemInstance;
+    }
+
+    /**
+     * Gets Number of jobs.
+     *
+     * @return Value of Number of jobs.
+     */
+    public int getNumJobs() {
+        return numJobs;
+    }
+
+    /**
+     * Gets Number of machines.
+     *
+     * @return Value of Number of machines.
+     */
+    public int getNumMachines() {
+        return numMachines;
+    }
+
+    /**
+     * Gets Number of operations.
+     *
+     * @return Value of Number of operations.
+     */
+    public int getNumOperations() {
+        return numOperations;
+    }
+
+    /**
+     * Gets job of operation.
+     *
+     * @param id
+     *         Operation id.
+     * @return Job.
+     */
+    public int getJob(final int id) {
+        return problemInstance.getJob(id);
+    }
+
+    /**
+     * Gets machine of operation.
+     *
+     * @param id
+     *         Operation id.
+     * @return Machine.
+     */
+    public int getMachine(final int id) {
+        return problemInstance.getMachine(id);
+    }
+
+    /**
+     * Gets processing time of operation.
+     *
+     * @param id
+     *         Operation id.
+     * @return Processing time.
+     */
+    public int getProcessingTime(final int id) {
+        return problemInstance.getProcessingTime(id);
+    }
+
+    /**
+     * Gets next operation of the same job.
+     *
+     * @param id
+     *         Operation id.
+     * @return Operation id or {@link #NONE}
+     */
+    public int getJobSuccessor(final int id) {
+        return problemInstance.getJobSuccessor(id);
+    }
+
+    /**
+     * Gets previous operation of the same job.
+     *
+     * @param id
+     *         Operation id.
+     * @return Operation id or {@link #NONE}
+     */
+    public int getJobPredecessor(final int id) {
+        return problemInstance.getJobPredecessor(id);
+    }
+
+    /**
+     * Gets next operation on the same machine.
+     *
+     * @param id
+     *         Operation id.
+     * @return Operation id or {@link #NONE}
+     */
+    public int getMachineSuccessor(final int id) {
+        return machineSuccessor[id];
+    }
+
+    /**
+     * Gets previous operation on the same machine.
+     *
+     * @param id
+     *         Operation id.
+     * @return Operation id or {@link #NONE}
+     */
+    public int getMachinePredecessor(final int id) {
+        return machinePredecessor[id];
+    }
+
+    /**
+     * Gets position of operation in its machine sequence.
+     *
+     * @param id
+     *         Operation id.
+     * @return Position, 0 for the first operation on the machine.
+     */
+    public int getMachinePosition(final int id) {
+        return machinePosition[id];
+    }
+
+    /**
+     * Gets Zobrist fingerprint of the machine sequences, kept up to date by each swap.
+     *
+     * @return Fingerprint.
+     */
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Gets last operation of a job.
+     *
+     * @param job
+     *         Job.
+     * @return Operation id.
+     */
+    public int getLastJobOperation(final int job) {
+        return problemInstance.getLastJobOperation(job);
+    }
+
+    /**
+     * Gets heads indexed by operation id. Returns the backing array so evaluation kernels can fill it in place.
+     *
+     * @return Heads.
+     */
+    public int[] getHeads() {
+        return heads;
+    }
+
+    /**
+     * Gets tails indexed by operation id. Returns the backing array so evaluation kernels can fill it in place.
+     *
+     * @return Tails.
+     */
+    public int[] getTails() {
+        return tails;
+    }
+
+    /**
+     * Gets operations in topological order. Returns the backing array so evaluation kernels can fill it in place.
+     *
+     * @return Operation ids.
+     */
+    public int[] getTopologicalOrder() {
+        return topologicalOrder;
+    }
+
+    /**
+     * Gets positions in the topological order indexed by operation id. Returns the backing array so evaluation
+     * kernels can fill it in place.
+     *
+     * @return Positions.
+     */
+    public int[] getTopologicalPositions() {
+        return topologicalPosition;
+    }
+
+    /**
+     * Gets whether the topological order matches the machine sequences.
+     *
+     * @return true/false
+     */
+    public boolean isOrdered() {
+        return ordered;
+    }
+
+    /**
+     * Sets whether the topological order matches the machine sequences.
+     *
+     * @param ordered
+     *         true/false
+     */
+    public void setOrdered(final boolean ordered) {
+        this.ordered = ordered;
+    }
+
+    /**
+     * Gets completion time (head plus processing time) of operation.
+     *
+     * @param id
+     *         Operation id.
+     * @return Completion time.
+     */
+    public int getCompletionTime(final int id) {
+        return heads[id] + problemInstance.getProcessingTime(id);
+    }
+
+    /**
+     * Gets Makespan.
+     *
+     * @return Value of Makespan.
+     */
+    public int getMakespan() {
+        return makespan;
+    }
+
+    /**
+     * Sets new Makespan.
+     *
+     * @param makespan
+     *         New value of Makespan.
+     */
+    public void setMakespan(final int makespan) {
+        this.makespan = makespan;
+    }
+
+    /**
+     * Gets whether heads, tails and makespan match the machine sequences.
+     *
+     * @return true/false
+     */
+    public boolean isTimed() {
+        return timed;
+    }
+
+    /**
+     * Sets whether heads, tails and makespan match the machine sequences.
+     *
+     * @param timed
+     *         true/false
+     */
+    public void setTimed(final boolean timed) {
+        this.timed = timed;
+    }
+
+    /**
+     * Gets whether machine sequences form an acyclic graph.
+     *
+     * @return true/false
+     */
+    public boolean isAcyclic() {
+        return acyclic;
+    }
+
+    /**
+     * Sets whether machine sequences form an acyclic graph.
+     *
+     * @param acyclic
+     *         true/false
+     */
+    public void setAcyclic(final boolean acyclic) {
+        this.acyclic = acyclic;
+    }
+}
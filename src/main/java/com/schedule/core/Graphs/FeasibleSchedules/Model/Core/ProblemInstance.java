@@ -0,0 +1,321 @@
+package com.schedule.core.Graphs.FeasibleSchedules.Model.Core;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable routings and processing times of a job shop instance, shared by every {@link Schedule} of a population.
+ * <p>
+ * Operation ids are job-major, following each job's routing, and {@link PackedSchedule#NONE} marks a missing
+ * neighbour or a machine a job skips.
+ */
+public class ProblemInstance implements Serializable {
+
+    /** Zobrist keys per instance size, indexed by operation id times number of jobs plus machine position. */
+    private static final Map<Long, long[]> ZOBRIST_KEYS = new ConcurrentHashMap<>();
+
+    /** Number of jobs. */
+    private final int numJobs;
+
+    /** Number of machines. */
+    private final int numMachines;
+
+    /** Number of operations (end vertex excluded). */
+    private final int numOperations;
+
+    /** Job of each operation. */
+    private final int[] job;
+
+    /** Machine of each operation. */
+    private final int[] machine;
+
+    /** Processing time of each operation. */
+    private final int[] processingTime;
+
+    /** Next operation of the same job. */
+    private final int[] jobSuccessor;
+
+    /** Previous operation of the same job. */
+    private final int[] jobPredecessor;
+
+    /** First operation of each job. */
+    private final int[] firstJobOperation;
+
+    /** Last operation of each job. */
+    private final int[] lastJobOperation;
+
+    /** Operation ids indexed by job then machine. */
+    private final int[][] jobMachineOperation;
+
+    /** Zobrist keys shared by every instance of this size. */
+    private final long[] zobristKeys;
+
+    /**
+     * Constructor.
+     *
+     * @param numJobs
+     *         Number of jobs.
+     * @param numMachines
+     *         Number of machines.
+     */
+    private ProblemInstance(final int numJobs, final int numMachines) {
+
+        this.numJobs = numJobs;
+        this.numMachines = numMachines;
+        this.numOperations = numJobs * numMachines;
+
+        job = new int[numOperations];
+        machine = new int[numOperations];
+        processingTime = new int[numOperations];
+        jobSuccessor = new int[numOperations];
+        jobPredecessor = new int[numOperations];
+        firstJobOperation = new int[numJobs];
+        lastJobOperation = new int[numJobs];
+        jobMachineOperation = new int[numJobs][numMachines];
+        zobristKeys = ZOBRIST_KEYS.computeIfAbsent((long) numJobs << 32 | numMachines,
+                                                   key -> generateZobristKeys(numOperations * numJobs, key));
+
+        Arrays.fill(jobSuccessor, PackedSchedule.NONE);
+        Arrays.fill(jobPredecessor, PackedSchedule.NONE);
+        for (final int[] machines : jobMachineOperation) {
+            Arrays.fill(machines, PackedSchedule.NONE);
+        }
+    }
+
+    /**
+     * Generates random keys, seeded by instance size so fingerprints agree across runs.
+     *
+     * @param size
+     *         Number of keys.
+     * @param seed
+     *         Seed.
+     * @return Keys.
+     */
+    private static long[] generateZobristKeys(final int size, final long seed) {
+
+        final SplittableRandom random = new SplittableRandom(seed);
+        final long[] keys = new long[size];
+        for (int index = 0; index < size; index++) {
+            keys[index] = random.nextLong();
+        }
+        return keys;
+    }
+
+    /**
+     * Builds instance from a benchmark job set, numbering operations along each job's routing.
+     *
+     * @param jobset
+     *         Machine and processing time of each job's operations, in routing order.
+     * @return {@link ProblemInstance}
+     */
+    public static ProblemInstance fromJobset(final Integer[][][] jobset) {
+
+        final ProblemInstance problemInstance = new ProblemInstance(jobset.length, jobset[0].length);
+
+        int id = 0;
+        for (int jobValue = 0; jobValue < jobset.length; jobValue++) {
+
+            problemInstance.firstJobOperation[jobValue] = id;
+            for (final Integer[] task : jobset[jobValue]) {
+
+                problemInstance.addOperation(id, jobValue, task[0], task[1],
+                                             id == problemInstance.firstJobOperation[jobValue]
+                                                     ? PackedSchedule.NONE : id - 1);
+                id++;
+            }
+            problemInstance.lastJobOperation[jobValue] = id - 1;
+        }
+
+        return problemInstance;
+    }
+
+    /**
+     * Builds instance from the job routings of a schedule graph.
+     *
+     * @param schedule
+     *         {@link Schedule}
+     * @return {@link ProblemInstance}
+     */
+    public static ProblemInstance fromSchedule(final Schedule schedule) {
+
+        final ProblemInstance problemInstance = new ProblemInstance(schedule.getNumJobs(), schedule.getNumMachines());
+
+        for (final Operation operation : schedule.getAllVertices()) {
+
+            final int predecessor = operation.hasConjunctiveParent()
+                    ? operation.getConjunctiveParent().getOperationFrom().getId() : PackedSchedule.NONE;
+            problemInstance.addOperation(operation.getId(), operation.getJob(), operation.getMachine(),
+                                         operation.getProcessingTime(), predecessor);
+
+            if (predecessor == PackedSchedule.NONE) {
+                problemInstance.firstJobOperation[operation.getJob()] = operation.getId();
+            }
+            if (!operation.hasNeighbour()) {
+                problemInstance.lastJobOperation[operation.getJob()] = operation.getId();
+            }
+        }
+
+        return problemInstance;
+    }
+
+    /**
+     * Records an operation, linking it after its job predecessor.
+     *
+     * @param id
+     *         Operation id.
+     * @param jobValue
+     *         Job.
+     * @param machineValue
+     *         Machine.
+     * @param time
+     *         Processing time.
+     * @param predecessor
+     *         Previous operation of the job or {@link PackedSchedule#NONE}
+     */
+    private void addOperation(final int id, final int jobValue, final int machineValue, final int time,
+                              final int predecessor) {
+
+        job[id] = jobValue;
+        machine[id] = machineValue;
+        processingTime[id] = time;
+        jobMachineOperation[jobValue][machineValue] = id;
+
+        jobPredecessor[id] = predecessor;
+        if (predecessor != PackedSchedule.NONE) {
+            jobSuccessor[predecessor] = id;
+        }
+    }
+
+    /**
+     * Gets Zobrist key of an operation at a machine position.
+     *
+     * @param id
+     *         Operation id.
+     * @param position
+     *         Position in machine sequence.
+     * @return Key.
+     */
+    public long getZobristKey(final int id, final int position) {
+        return zobristKeys[id * numJobs + position];
+    }
+
+    /**
+     * Gets Number of jobs.
+     *
+     * @return Value of Number of jobs.
+     */
+    public int getNumJobs() {
+        return numJobs;
+    }
+
+    /**
+     * Gets Number of machines.
+     *
+     * @return Value of Number of machines.
+     */
+    public int getNumMachines() {
+        return numMachines;
+    }
+
+    /**
+     * Gets Number of operations.
+     *
+     * @return Value of Number of operations.
+     */
+    public int getNumOperations() {
+        return numOperations;
+    }
+
+    /**
+     * Gets job of operation.
+     *
+     * @param id
+     *         Operation id.
+     * @return Job.
+     */
+    public int getJob(final int id) {
+        return job[id];
+    }
+
+    /**
+     * Gets machine of operation.
+     *
+     * @param id
+     *         Operation id.
+     * @return Machine.
+     */
+    public int getMachine(final int id) {
+        return machine[id];
+    }
+
+    /**
+     * Gets processing time of operation.
+     *
+     * @param id
+     *         Operation id.
+     * @return Processing time.
+     */
+    public int getProcessingTime(final int id) {
+        return processingTime[id];
+    }
+
+    /**
+     * Gets next operation of the same job.
+     *
+     * @param id
+     *         Operation id.
+     * @return Operation id or {@link PackedSchedule#NONE}
+     */
+    public int getJobSuccessor(final int id) {
+        return jobSuccessor[id];
+    }
+
+    /**
+     * Gets previous operation of the same job.
+     *
+     * @param id
+     *         Operation id.
+     * @return Operation id or {@link PackedSchedule#NONE}
+     */
+    public int getJobPredecessor(final int id) {
+        return jobPredecessor[id];
+    }
+
+    /**
+     * Gets first operation of a job.
+     *
+     * @param job
+     *         Job.
+     * @return Operation id.
+     */
+    public int getFirstJobOperation(final int job) {
+        return firstJobOperation[job];
+    }
+
+    /**
+     * Gets last operation of a job.
+     *
+     * @param job
+     *         Job.
+     * @return Operation id.
+     */
+    public int getLastJobOperation(final int job) {
+        return lastJobOperation[job];
+    }
+
+    /**
+     * Gets operation of a job on a machine.
+     *
+     * @param job
+     *         Job.
+     * @param machine
+     *         Machine.
+     * @return Operation id or {@link PackedSchedule#NONE} where the job skips the machine.
+     */
+    public int getOperation(final int job, final int machine) {
+        return jobMachineOperation[job][machine];
+    }
+}
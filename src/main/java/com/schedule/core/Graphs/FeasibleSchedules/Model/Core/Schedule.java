@@ -1,9 +1,8 @@
 package com.schedule.core.Graphs.FeasibleSchedules.Model.Core;
 
-import com.rits.cloning.Cloner;
 import com.schedule.core.Graphs.FeasibleSchedules.Model.Other.LRUCache;
+import com.schedule.core.Graphs.FeasibleSchedules.Service.ScheduleService;
 import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -39,12 +38,36 @@ public class Schedule implements Serializable {
     /** List of longest paths. */
     private List<Set<Edge>> longestPaths;
 
+    /** Service recalculating longest paths on first use, null while they are current. */
+    private ScheduleService longestPathService;
+
     /** BackBone Score (Firefly). */
     private Integer backBoneScore = 0;
 
     /** Least Recently Used Cache of flipped Edges. */
     private LRUCache<Edge, Double> lruEdgeCache;
 
+    /** Routings and processing times shared by every schedule of the instance. */
+    private ProblemInstance problemInstance;
+
+    /** Packed primitive mirror of the graph. */
+    private PackedSchedule packedSchedule;
+
+    /** Whether the graph was edited since the packed mirror last read it. */
+    private boolean packedScheduleStale;
+
+    /** Whether the schedule is shared with readers and rejects changes. */
+    private boolean readOnly;
+
+    /** Operations indexed by id. */
+    private Operation[] operations;
+
+    /** Operations indexed by job then machine, null where a job skips a machine. */
+    private Operation[][] jobMachineOperations;
+
+    /** Last operation added for each job. */
+    private Operation[] lastJobOperations;
+
     /**
      * Constructor.
      */
@@ -56,7 +79,34 @@ public class Schedule implements Serializable {
         this.numMachines = numMachines;
 
         final Integer taskNumber = numJobs * numMachines;
-        endVertex = new EndVertex(taskNumber, -1, -1);
+        endVertex = new EndVertex(taskNumber, -1, -1, numJobs);
+
+        operations = new Operation[taskNumber];
+        jobMachineOperations = new Operation[numJobs][numMachines];
+        lastJobOperations = new Operation[numJobs];
+    }
+
+    /**
+     * Constructor building the job routings of a shared instance, machine sequences are left to
+     * {@link #setActiveEdge(Integer, Integer, Integer[])}.
+     *
+     * @param problemInstance
+     *         {@link ProblemInstance}
+     */
+    public Schedule(final ProblemInstance problemInstance) {
+
+        this(problemInstance.getNumJobs(), problemInstance.getNumMachines());
+        this.problemInstance = problemInstance;
+
+        for (int job = 0; job < numJobs; job++) {
+
+            for (int id = problemInstance.getFirstJobOperation(job); id != PackedSchedule.NONE;
+                 id = problemInstance.getJobSuccessor(id)) {
+
+                addVertex(problemInstance.getProcessingTime(id),
+                          new Operation(id, job, problemInstance.getMachine(id)));
+            }
+        }
     }
 
     /**
@@ -69,6 +119,10 @@ public class Schedule implements Serializable {
 
         this.jobHashMap = schedule.getJobHashMap();
         this.makespan = schedule.getMakespan();
+        this.operations = schedule.operations;
+        this.jobMachineOperations = schedule.jobMachineOperations;
+        this.lastJobOperations = schedule.lastJobOperations;
+        this.problemInstance = schedule.problemInstance;
     }
 
     /**
@@ -82,8 +136,10 @@ public class Schedule implements Serializable {
     public void addVertex(final Integer processingTime, final Operation operation) {
 
         updateConjunctiveEdges(processingTime, operation);
-        updateDisjunctiveEdges(operation);
 
+        operations[operation.getId()] = operation;
+        jobMachineOperations[operation.getJob()][operation.getMachine()] = operation;
+        lastJobOperations[operation.getJob()] = operation;
     }
 
     /**
@@ -98,7 +154,7 @@ public class Schedule implements Serializable {
 
         if (jobHashMap.containsKey(operation.getJob())) {
 
-            final Operation lastOperation = findFinalConjunctiveVertexForJob(jobHashMap.get(operation.getJob()));
+            final Operation lastOperation = lastJobOperations[operation.getJob()];
             lastOperation.getConjunctiveEdge().setOperationTo(operation);
             operation.setConjunctiveParent(lastOperation.getConjunctiveEdge());
 
@@ -111,113 +167,6 @@ public class Schedule implements Serializable {
         endVertex.addEndParentEdge(operation.getConjunctiveEdge());
     }
 
-    /**
-     * Adds disjunctive arcs between vertices.
-     *
-     * @param operation
-     *         TaskModel info.
-     */
-    private void updateDisjunctiveEdges(final Operation operation) {
-
-        //Updates current job as checked
-        final Set<Integer> uncheckedJobs = new HashSet<>(jobHashMap.keySet());
-        if (uncheckedJobs.contains(operation.getJob())) {
-            uncheckedJobs.remove(operation.getJob());
-        }
-
-        //Continues through unchecked jobs
-        while (!uncheckedJobs.isEmpty()) {
-
-            final Integer jobToCheck = uncheckedJobs.iterator().next();
-
-            //Finds first available job/machine match
-            final Operation relevantOperationForJob = findVertexForMachine(operation.getMachine(),
-                                                                           jobHashMap.get(jobToCheck));
-
-            //If not null, run depth first update vertices to add disjunctive edges
-            if (relevantOperationForJob != null) {
-                final Set<Integer> updatedEdges = depthFirstUpdateVertices(new HashSet<>(), operation,
-                                                                           relevantOperationForJob);
-                uncheckedJobs.removeAll(updatedEdges);
-
-            } else {
-
-                uncheckedJobs.remove(jobToCheck);
-            }
-        }
-    }
-
-    /**
-     * Does a depth-first-search on vertices, adding disjunctive arcs between vertices that haven't yet been updated
-     *
-     * @param newOperation
-     *         New vertex we're adding
-     * @param oldOperation
-     *         A vertex that already exists (running on same machine)
-     * @return Jobs that have now been checked for given machine
-     */
-    private Set<Integer> depthFirstUpdateVertices(final Set<Integer> depthFirstUpdatedVertices, final Operation
-            newOperation, final Operation oldOperation) {
-
-        newOperation.addDisjunctiveEdge(new Edge(newOperation, oldOperation, newOperation.getConjunctiveEdge()
-                .getProcessingTime()));
-
-        depthFirstUpdatedVertices.add(oldOperation.getJob());
-        if (oldOperation.hasDisjunctiveEdges()) {
-
-            for (final Edge disjunctiveEdge : oldOperation.getInactiveDisjunctiveEdges()) {
-
-                if (!depthFirstUpdatedVertices.contains(disjunctiveEdge.getOperationTo().getJob())) {
-                    depthFirstUpdatedVertices.addAll(depthFirstUpdateVertices(depthFirstUpdatedVertices, newOperation,
-                                                                              disjunctiveEdge.getOperationTo()));
-                }
-            }
-
-        }
-        oldOperation.addDisjunctiveEdge(
-                new Edge(oldOperation, newOperation, oldOperation.getConjunctiveEdge().getProcessingTime()));
-
-        return depthFirstUpdatedVertices;
-    }
-
-
-    /**
-     * Finds final conjunctive operation for the job.
-     *
-     * @param operation
-     *         TaskModel details.
-     * @return {@link Operation}
-     */
-    private Operation findFinalConjunctiveVertexForJob(final Operation operation) {
-
-        if (operation.hasNeighbour()) {
-
-            return findFinalConjunctiveVertexForJob(operation.getConjunctiveEdge().getOperationTo());
-        }
-        return operation;
-    }
-
-    /**
-     * Finds operation that runs on machine x for given job route operation start y
-     *
-     * @param machine
-     *         Machine operation should run on.
-     * @param operation
-     *         Starts withh first operation in job.
-     * @return ScheduleTask that runs on given machine.
-     */
-    private Operation findVertexForMachine(final Integer machine, final Operation operation) {
-
-        if (operation.getMachine().equals(machine)) {
-            return operation;
-        } else if (operation.hasNeighbour()) {
-
-            return findVertexForMachine(machine, operation.getConjunctiveEdge().getOperationTo());
-        }
-
-        return null;
-    }
-
     /**
      * Returns all vertices.
      *
@@ -256,7 +205,7 @@ public class Schedule implements Serializable {
     public Set<Edge> getAllMachineEdgesNotOnLongestPath() {
 
         final Set<Edge> longestPathEdges = new HashSet<>();
-        for (final Set<Edge> path : longestPaths) {
+        for (final Set<Edge> path : getLongestPaths()) {
 
             longestPathEdges.addAll(path);
         }
@@ -295,30 +244,6 @@ public class Schedule implements Serializable {
     }
 
 
-    /**
-     * Returns operation in job that runs on given machine adding active edges until reached.
-     *
-     * @param operation
-     *         {@link Operation}
-     * @param machine
-     *         Machine.
-     * @return {@link Operation}
-     */
-    private Operation findJobTaskWithMachine(final Operation operation, final Integer machine) {
-
-        LOG.trace("Checking operation: {} for machine: {}", operation, machine);
-
-        if (operation.getMachine() == machine) {
-            return operation;
-        }
-
-        if (operation.hasNeighbour()) {
-            return findJobTaskWithMachine(operation.getConjunctiveEdge().getOperationTo(), machine);
-        }
-
-        throw new IllegalStateException("Missing machine:" + machine + " from job " + operation.getJob());
-    }
-
     /**
      * Returns vertex for job and machine params given.
      *
@@ -332,19 +257,25 @@ public class Schedule implements Serializable {
 
         LOG.trace("Locating operation for job: {} and machine: {}", job, machine);
 
-        Operation operation = jobHashMap.get(job);
-        while (!Objects.equals(operation.getMachine(), machine)) {
-
-            LOG.trace("Continue looking machine: {} incorrect", operation.getMachine());
-
-            operation = operation.getConjunctiveEdge().getOperationTo();
+        final Operation operation = jobMachineOperations[job][machine];
+        if (operation == null) {
+            throw new IllegalStateException("Missing machine:" + machine + " from job " + job);
         }
 
-        LOG.trace("Found machine");
-
         return operation;
     }
 
+    /**
+     * Returns operation with the given id.
+     *
+     * @param id
+     *         Operation id.
+     * @return {@link Operation}
+     */
+    public Operation getOperation(final int id) {
+        return operations[id];
+    }
+
     /**
      * Sets active edges (based on random schedule builder)
      *
@@ -357,15 +288,17 @@ public class Schedule implements Serializable {
      */
     public void setActiveEdge(final Integer job, final Integer lastJob, final Integer[] taskParams) {
 
-        final Operation operationTo = findJobTaskWithMachine(jobHashMap.get(job), taskParams[0]);
+        checkWritable();
+        final Operation operationTo = locateOperation(job, taskParams[0]);
 
         if (lastJob != null) {
 
-            final Operation operationFrom = findJobTaskWithMachine(jobHashMap.get(lastJob), taskParams[0]);
+            final Operation operationFrom = locateOperation(lastJob, taskParams[0]);
 
             final Edge disjunctiveEdge = new Edge(operationFrom, operationTo, operationFrom.getProcessingTime());
             operationFrom.setDisjunctiveEdge(disjunctiveEdge);
             operationTo.setDisjunctiveParent(disjunctiveEdge);
+            packedScheduleStale = true;
         }
     }
 
@@ -451,6 +384,8 @@ public class Schedule implements Serializable {
      *         New value of Makespan..
      */
     public void setMakespan(Integer makespan) {
+
+        checkWritable();
         this.makespan = makespan;
     }
 
@@ -469,6 +404,13 @@ public class Schedule implements Serializable {
      * @return Value of longestPaths.
      */
     public List<Set<Edge>> getLongestPaths() {
+
+        if (longestPathService != null) {
+
+            final ScheduleService scheduleService = longestPathService;
+            longestPathService = null;
+            scheduleService.calculatePaths(this);
+        }
         return longestPaths;
     }
 
@@ -480,7 +422,7 @@ public class Schedule implements Serializable {
     public Set<Edge> getLongestPathEdges() {
 
         final Set<Edge> lpEdges = new HashSet<>();
-        for (final Set<Edge> path : longestPaths) {
+        for (final Set<Edge> path : getLongestPaths()) {
             lpEdges.addAll(path);
         }
         return lpEdges;
@@ -494,7 +436,7 @@ public class Schedule implements Serializable {
     public ArrayList<Edge> getLongestPathArray() {
 
         final ArrayList longestPathEdges = new ArrayList();
-        for (final Set<Edge> path : longestPaths) {
+        for (final Set<Edge> path : getLongestPaths()) {
             longestPathEdges.addAll(path);
         }
         return longestPathEdges;
@@ -507,7 +449,31 @@ public class Schedule implements Serializable {
      *         New value of longestPaths.
      */
     public void setLongestPaths(List<Set<Edge>> longestPaths) {
+
+        checkWritable();
         this.longestPaths = longestPaths;
+        this.longestPathService = null;
+    }
+
+    /**
+     * Marks longest paths stale, they are recalculated by the given service when next asked for.
+     *
+     * @param scheduleService
+     *         {@link ScheduleService}
+     */
+    public void invalidateLongestPaths(final ScheduleService scheduleService) {
+
+        checkWritable();
+        this.longestPathService = scheduleService;
+    }
+
+    /**
+     * Checks longest paths match the current machine sequences without recalculating them.
+     *
+     * @return true/false
+     */
+    public boolean hasCurrentLongestPaths() {
+        return longestPathService == null;
     }
 
     /**
@@ -539,12 +505,190 @@ public class Schedule implements Serializable {
         return numJobs;
     }
 
+    /**
+     * Gets routings and processing times of the instance, reading them from the graph if the schedule was not built
+     * from a shared instance.
+     *
+     * @return {@link ProblemInstance}
+     */
+    public ProblemInstance getProblemInstance() {
+
+        if (problemInstance == null) {
+            problemInstance = ProblemInstance.fromSchedule(this);
+        }
+        return problemInstance;
+    }
+
+    /**
+     * Gets packed mirror of the graph, packing it on first use and re-reading it after {@link #setActiveEdge}.
+     * Edge switches keep it in sync without reading the graph, other direct graph edits need
+     * {@link #syncPackedSchedule()}.
+     *
+     * @return {@link PackedSchedule}
+     */
+    public PackedSchedule getPackedSchedule() {
+
+        if (packedSchedule == null || packedScheduleStale) {
+            syncPackedSchedule();
+        }
+        return packedSchedule;
+    }
+
+    /**
+     * Re-reads machine sequences into the packed mirror from the graph.
+     */
+    public void syncPackedSchedule() {
+
+        checkWritable();
+        if (packedSchedule == null) {
+            packedSchedule = PackedSchedule.fromSchedule(this);
+        } else {
+            packedSchedule.readMachineSequences(this);
+        }
+        packedScheduleStale = false;
+    }
+
+    /**
+     * Copies this schedule into a new schedule of the same instance.
+     *
+     * @return {@link Schedule}
+     */
+    public Schedule fork() {
+
+        final Schedule target = new Schedule(getProblemInstance());
+        forkInto(target);
+
+        return target;
+    }
+
+    /**
+     * Copies machine sequences, timing, longest paths and scores into a preallocated schedule of the same instance in
+     * a single pass over the operations. Machine edges of the target are reused, so only missing ones are allocated.
+     *
+     * @param target
+     *         {@link Schedule} built from the same {@link ProblemInstance}
+     */
+    public void forkInto(final Schedule target) {
+
+        if (target.getProblemInstance() != getProblemInstance()) {
+            throw new IllegalArgumentException("Cannot fork into schedule of another instance");
+        }
+        target.checkWritable();
+
+        //Detaches machine edges of target for reuse
+        final Edge[] spareEdges = new Edge[operations.length];
+        int spare = 0;
+        for (final Operation targetOperation : target.operations) {
+
+            if (targetOperation.hasDisjunctiveEge()) {
+                spareEdges[spare++] = targetOperation.getDisjunctiveEdge();
+            }
+            targetOperation.deactivateDisjunctive();
+            targetOperation.deactivateDisjunctiveParent();
+        }
+
+        for (final Operation operation : operations) {
+
+            if (!operation.hasDisjunctiveEge()) {
+                continue;
+            }
+            final Operation operationFrom = target.operations[operation.getId()];
+            final Operation operationTo = target.operations[operation.getDisjunctiveEdge().getOperationTo().getId()];
+
+            final Edge edge = spare > 0 ? spareEdges[--spare] : new Edge(null, null, null);
+            edge.setOperationFrom(operationFrom);
+            edge.setOperationTo(operationTo);
+            edge.setProcessingTime(operation.getDisjunctiveEdge().getProcessingTime());
+
+            operationFrom.setDisjunctiveEdge(edge);
+            operationTo.setDisjunctiveParent(edge);
+        }
+
+        if (target.packedSchedule == null) {
+            target.packedSchedule = new PackedSchedule(problemInstance);
+        }
+        getPackedSchedule().copyTo(target.packedSchedule);
+        target.packedScheduleStale = false;
+
+        target.makespan = makespan;
+        target.backBoneScore = backBoneScore;
+        target.longestPathService = longestPathService;
+        target.longestPaths = longestPaths == null || longestPathService != null
+                ? null : target.translatePaths(longestPaths);
+
+        target.lruEdgeCache = null;
+        if (lruEdgeCache != null) {
+
+            target.initialiseCache();
+            target.lruEdgeCache.putAll(lruEdgeCache);
+        }
+    }
+
+    /**
+     * Maps paths of another schedule of the same instance onto the edges of this one.
+     *
+     * @param paths
+     *         Paths of edges from another schedule.
+     * @return Paths of edges of this schedule.
+     */
+    private List<Set<Edge>> translatePaths(final List<Set<Edge>> paths) {
+
+        final List<Set<Edge>> translatedPaths = new ArrayList<>(paths.size());
+        for (final Set<Edge> path : paths) {
+
+            final Set<Edge> translatedPath = new LinkedHashSet<>();
+            for (final Edge edge : path) {
+
+                final Operation operationFrom = operations[edge.getOperationFrom().getId()];
+                translatedPath.add(edge.getOperationFrom().getConjunctiveEdge() == edge
+                                           ? operationFrom.getConjunctiveEdge() : operationFrom.getDisjunctiveEdge());
+            }
+            translatedPaths.add(translatedPath);
+        }
+        return translatedPaths;
+    }
+
+    /**
+     * Marks schedule read only, so it can be shared between readers. Longest paths must be current, readers fork it
+     * before changing it.
+     */
+    public void markReadOnly() {
+
+        if (!hasCurrentLongestPaths()) {
+            throw new IllegalStateException("Longest paths must be calculated before sharing schedule");
+        }
+        readOnly = true;
+    }
+
+    /**
+     * Checks whether the schedule is shared with readers and rejects changes.
+     *
+     * @return true/false
+     */
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * Checks the schedule may be changed.
+     *
+     * @throws UnsupportedOperationException
+     *         If it is read only.
+     */
+    public void checkWritable() {
+
+        if (readOnly) {
+            throw new UnsupportedOperationException("Schedule is read only, fork it before changing it");
+        }
+    }
+
     /**
      * Initialises least recently used cache
      * with size based on size of schedule.
      */
     public void initialiseCache() {
 
+        checkWritable();
         final Integer cacheSize = Math.max(numJobs, numMachines);
 
         lruEdgeCache = new LRUCache<>(cacheSize);
@@ -558,16 +702,15 @@ public class Schedule implements Serializable {
      */
     public void updateLruEdgeCache(final Edge lruEdge) {
 
-        final Cloner cloner = new Cloner();
-
+        checkWritable();
         if (lruEdgeCache.containsKey(lruEdge)) {
 
             final Double priorProbability = lruEdgeCache.get(lruEdge);
 
-            lruEdgeCache.put(cloner.deepClone(lruEdge), priorProbability * 0.9);
+            lruEdgeCache.put(lruEdge.detach(), priorProbability * 0.9);
         } else {
 
-            lruEdgeCache.put(cloner.deepClone(lruEdge), 0.9);
+            lruEdgeCache.put(lruEdge.detach(), 0.9);
         }
     }
 
@@ -613,6 +756,7 @@ public class Schedule implements Serializable {
      */
     public void addLongestPath(final Set<Edge> path) {
 
+        checkWritable();
         if (longestPaths == null) {
             longestPaths = new ArrayList<>();
         }
@@ -620,6 +764,17 @@ public class Schedule implements Serializable {
         longestPaths.add(path);
     }
 
+    /**
+     * Gets Zobrist fingerprint of the machine sequences, the identity key of the schedule. Graph changes made outside
+     * {@code ScheduleService.switchEdge(Schedule, Edge)} and {@link #setActiveEdge} are picked up by the next
+     * {@link #syncPackedSchedule()}.
+     *
+     * @return Value of fingerprint.
+     */
+    public long getFingerprint() {
+        return getPackedSchedule().getFingerprint();
+    }
+
     /**
      * Equals.
      */
@@ -633,25 +788,19 @@ public class Schedule implements Serializable {
         final Schedule compareSchedule = (Schedule) obj;
 
         final EqualsBuilder equalsBuilder = new EqualsBuilder();
-        equalsBuilder.append(getLongestPaths(), compareSchedule.getLongestPaths());
-        equalsBuilder.append(getJobHashMap(), compareSchedule.getJobHashMap());
+        equalsBuilder.append(getFingerprint(), compareSchedule.getFingerprint());
         equalsBuilder.append(getMakespan(), compareSchedule.getMakespan());
 
-        return equalsBuilder.isEquals();
+        return equalsBuilder.isEquals()
+                && getPackedSchedule().hasSameMachineSequences(compareSchedule.getPackedSchedule());
     }
 
     /**
-     * Equals.
+     * Hash code of the fingerprint.
      */
     @Override
     public int hashCode() {
-
-        final HashCodeBuilder hashCodeBuilder = new HashCodeBuilder();
-        hashCodeBuilder.append(getJobHashMap());
-        hashCodeBuilder.append(getMakespan());
-        hashCodeBuilder.append(getLongestPaths());
-
-        return hashCodeBuilder.toHashCode();
+        return Long.hashCode(getFingerprint());
     }
 
     /**
@@ -682,30 +831,33 @@ public class Schedule implements Serializable {
 
         final StringBuilder stringBuilder = new StringBuilder();
 
-        stringBuilder.append("\n(J:").append(operation.getJob()).append(", M:").append(operation.getMachine()).append
-                (")\n");
+        //Walks along job
+        for (Operation current = operation; current != null;
+             current = current.hasNeighbour() ? current.getConjunctiveEdge().getOperationTo() : null) {
 
-        if (operation.hasActiveEdges()) {
-            for (final Edge edge : operation.getActiveEdges()) {
-                stringBuilder.append("---").append(edge.getProcessingTime()).append("--->")
-                        .append("(J:").append(edge.getOperationTo().getJob()).append(", M:")
-                        .append(edge.getOperationTo().getMachine()).append(")\n");
-            }
-        }
+            stringBuilder.append("\n(J:").append(current.getJob()).append(", M:").append(current.getMachine())
+                    .append(")\n");
 
-        if (operation.hasParentEdges()) {
-            for (final Edge edge : operation.getParentEdges()) {
-                stringBuilder.append("<---").append(edge.getProcessingTime()).append("---")
-                        .append("(J:").append(edge.getOperationFrom().getJob()).append(", M:")
-                        .append(edge.getOperationFrom().getMachine()).append(")\n");
+            for (int slot = 0; slot < current.getActiveEdgeSlots(); slot++) {
 
+                final Edge edge = current.getActiveEdge(slot);
+                if (edge != null) {
+                    stringBuilder.append("---").append(edge.getProcessingTime()).append("--->")
+                            .append("(J:").append(edge.getOperationTo().getJob()).append(", M:")
+                            .append(edge.getOperationTo().getMachine()).append(")\n");
+                }
             }
-        }
 
-        if (operation.hasNeighbour()) {
+            for (int slot = 0; slot < current.getParentEdgeSlots(); slot++) {
 
-            stringBuilder.append(printVertex(operation.getConjunctiveEdge().getOperationTo()));
+                final Edge edge = current.getParentEdge(slot);
+                if (edge != null) {
+                    stringBuilder.append("<---").append(edge.getProcessingTime()).append("---")
+                            .append("(J:").append(edge.getOperationFrom().getJob()).append(", M:")
+                            .append(edge.getOperationFrom().getMachine()).append(")\n");
 
+                }
+            }
         }
         return stringBuilder.toString();
     }
@@ -0,0 +1,13 @@
+package com.schedule.core.Graphs.FeasibleSchedules.Model.Other;
+
+/**
+ * Threads solver tasks run on.
+ */
+public enum ExecutionMode {
+
+    /** Work-stealing pool of platform threads, one per unit of parallelism. */
+    WORK_STEALING,
+
+    /** One virtual thread per task with evaluation capped at the parallelism, needs JDK 21 or later. */
+    VIRTUAL_THREADS
+}
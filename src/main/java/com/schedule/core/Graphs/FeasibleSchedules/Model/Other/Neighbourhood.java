@@ -0,0 +1,16 @@
+package com.schedule.core.Graphs.FeasibleSchedules.Model.Other;
+
+/**
+ * Neighbourhood a search draws its moves from.
+ */
+public enum Neighbourhood {
+
+    /** Single machine edge crossed by most longest paths. */
+    MOST_VISITED_EDGE,
+
+    /** Nowicki-Smutnicki swaps of the first and last pairs of each critical block. */
+    N5,
+
+    /** N5 plus moving block operations to the front or back of their critical block. */
+    N6
+}
@@ -0,0 +1,166 @@
+package com.schedule.core.Graphs.FeasibleSchedules.Model.Other;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+
+/**
+ * Master seed split into an independent random stream per solver task.
+ * <p>
+ * Streams are split in the order tasks are submitted and bound to the thread running the task, so a task draws the
+ * same numbers whichever worker runs it and however many workers there are. Code outside a task draws from a stream
+ * of its own thread, split from a fallback master on first use, so it never takes streams from the task masters.
+ */
+public class SolverRandom {
+
+    /** System property fixing the seed of the shared master. */
+    public static final String SEED_PROPERTY = "schedule.solver.seed";
+
+    /** Logger. */
+    private static final Logger LOG = LoggerFactory.getLogger(SolverRandom.class);
+
+    /** Mixed into the shared seed to seed the fallback master. */
+    private static final long FALLBACK_SEED_MIX = 0x9E3779B97F4A7C15L;
+
+    /** Stream of the task running on each thread, null outside tasks. */
+    private static final ThreadLocal<SplittableRandom> CURRENT = new ThreadLocal<>();
+
+    /** Stream of each thread outside tasks. */
+    private static final ThreadLocal<SplittableRandom> FALLBACK = ThreadLocal.withInitial(() -> getFallback().split());
+
+    /** Master used by builders and runtimes built without one. */
+    private static SolverRandom shared;
+
+    /** Master of the streams drawn from outside tasks. */
+    private static SolverRandom fallback;
+
+    /** Seed of the master. */
+    private final long seed;
+
+    /** Master streams are split from. */
+    private final SplittableRandom master;
+
+    /** Number of streams split off. */
+    private long splits;
+
+    /**
+     * Constructor.
+     *
+     * @param seed
+     *         Master seed.
+     */
+    public SolverRandom(final long seed) {
+
+        this.seed = seed;
+        this.master = new SplittableRandom(seed);
+    }
+
+    /**
+     * Gets master shared by builders and runtimes built without one, seeded from {@link #SEED_PROPERTY} or randomly.
+     * The seed is logged so a run can be replayed.
+     *
+     * @return {@link SolverRandom}
+     */
+    public static synchronized SolverRandom getShared() {
+
+        if (shared == null) {
+
+            final String configured = System.getProperty(SEED_PROPERTY);
+            long seed = new SplittableRandom().nextLong();
+            if (configured != null) {
+                try {
+                    seed = Long.parseLong(configured.trim());
+                } catch (final NumberFormatException e) {
+                    LOG.warn("Ignoring invalid {}: {}", SEED_PROPERTY, configured);
+                }
+            }
+            LOG.info("Solver seed: {}", seed);
+            shared = new SolverRandom(seed);
+        }
+        return shared;
+    }
+
+    /**
+     * Gets master of the streams drawn from outside tasks, seeded from the shared seed without splitting the shared
+     * master.
+     *
+     * @return {@link SolverRandom}
+     */
+    private static synchronized SolverRandom getFallback() {
+
+        if (fallback == null) {
+            fallback = new SolverRandom(getShared().getSeed() ^ FALLBACK_SEED_MIX);
+        }
+        return fallback;
+    }
+
+    /**
+     * Splits off the next independent stream.
+     *
+     * @return {@link SplittableRandom}
+     */
+    public synchronized SplittableRandom split() {
+
+        splits++;
+        return master.split();
+    }
+
+    /**
+     * Wraps task to draw from its own stream, split now so the stream follows submission order.
+     *
+     * @param task
+     *         {@link Callable}
+     * @param <T>
+     *         Result type.
+     * @return {@link Callable} binding the stream while it runs.
+     */
+    public <T> Callable<T> bind(final Callable<T> task) {
+
+        final SplittableRandom stream = split();
+        return () -> {
+
+            final SplittableRandom previous = CURRENT.get();
+            CURRENT.set(stream);
+            try {
+                return task.call();
+            } finally {
+                if (previous == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(previous);
+                }
+            }
+        };
+    }
+
+    /**
+     * Gets stream of the running task, or of the current thread outside tasks.
+     *
+     * @return {@link SplittableRandom}, only to be used on the current thread.
+     */
+    public static SplittableRandom current() {
+
+        final SplittableRandom stream = CURRENT.get();
+        return stream != null ? stream : FALLBACK.get();
+    }
+
+    /**
+     * Gets Seed of the master.
+     *
+     * @return Value of Seed of the master.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Gets Number of streams split off.
+     *
+     * @return Value of Number of streams split off.
+     */
+    public synchronized long getSplits() {
+        return splits;
+    }
+}
@@ -0,0 +1,174 @@
+package com.schedule.core.Graphs.FeasibleSchedules.Patterns;
+
+import com.schedule.core.Graphs.FeasibleSchedules.Model.Core.Schedule;
+import com.schedule.core.Graphs.FeasibleSchedules.Threads.SolverRuntime;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Delivers improvement events to observers on a dispatcher thread, away from the solver threads publishing them. A
+ * burst of improvements arriving while observers are busy is coalesced, only the latest is delivered.
+ */
+public class ImprovementEventBus {
+
+    /** Logger. */
+    private static final Logger LOG = LoggerFactory.getLogger(ImprovementEventBus.class);
+
+    /** Observers told of each delivered event. */
+    private final List<Observer> observers = new CopyOnWriteArrayList<>();
+
+    /** Latest event not yet delivered, replacing any earlier one. */
+    private final AtomicReference<Event> pending = new AtomicReference<>();
+
+    /** Whether a drain of pending events is scheduled or running. */
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    /** Events published. */
+    private final AtomicLong published = new AtomicLong();
+
+    /** Events delivered to observers. */
+    private final AtomicLong delivered = new AtomicLong();
+
+    /** Runs deliveries. */
+    private final Executor dispatcher;
+
+    /**
+     * Constructor, delivering on the dispatcher of the shared {@link SolverRuntime} running at the time of each
+     * delivery.
+     */
+    public ImprovementEventBus() {
+        this(runnable -> SolverRuntime.getShared().getDispatcher().execute(runnable));
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param dispatcher
+     *         {@link Executor} running deliveries, at most one at a time is submitted. The bus owns no threads, the
+     *         executor's owner shuts it down.
+     */
+    public ImprovementEventBus(final Executor dispatcher) {
+        this.dispatcher = dispatcher;
+    }
+
+    /**
+     * Subscribes observer to improvement events.
+     *
+     * @param observer
+     *         {@link Observer}
+     */
+    public void subscribe(final Observer observer) {
+        observers.add(observer);
+    }
+
+    /**
+     * Unsubscribes observer from improvement events.
+     *
+     * @param observer
+     *         {@link Observer}
+     */
+    public void unsubscribe(final Observer observer) {
+        observers.remove(observer);
+    }
+
+    /**
+     * Publishes an improvement without blocking, replacing any improvement not yet delivered.
+     *
+     * @param oldOptimalSchedule
+     *         Replaced optimal {@link Schedule}, may be null.
+     */
+    public void publish(final Schedule oldOptimalSchedule) {
+
+        published.incrementAndGet();
+        pending.set(new Event(oldOptimalSchedule));
+        scheduleDrain();
+    }
+
+    /**
+     * Submits a drain unless one is already scheduled or running.
+     */
+    private void scheduleDrain() {
+
+        if (draining.compareAndSet(false, true)) {
+            try {
+                dispatcher.execute(this::drain);
+            } catch (final RejectedExecutionException e) {
+
+                //Dispatcher shut down with the solver, the improvement stays pending for a later dispatch
+                draining.set(false);
+                LOG.debug("Dispatcher shut down, improvement not delivered");
+            }
+        }
+    }
+
+    /**
+     * Delivers pending events until none are left.
+     */
+    private void drain() {
+
+        Event event;
+        while ((event = pending.getAndSet(null)) != null) {
+
+            delivered.incrementAndGet();
+            for (final Observer observer : observers) {
+
+                try {
+                    observer.update(event.oldOptimalSchedule);
+                } catch (final RuntimeException e) {
+                    LOG.warn("Observer failed handling improvement", e);
+                }
+            }
+        }
+        draining.set(false);
+
+        //An event published after the last poll but before the flag was cleared
+        if (pending.get() != null) {
+            scheduleDrain();
+        }
+    }
+
+    /**
+     * Gets number of events published.
+     *
+     * @return Events published.
+     */
+    public long getPublishedEvents() {
+        return published.get();
+    }
+
+    /**
+     * Gets number of events delivered, lower than published when bursts were coalesced.
+     *
+     * @return Events delivered.
+     */
+    public long getDeliveredEvents() {
+        return delivered.get();
+    }
+
+    /**
+     * Improvement waiting for delivery.
+     */
+    private static class Event {
+
+        /** Replaced optimal {@link Schedule}. */
+        private final Schedule oldOptimalSchedule;
+
+        /**
+         * Constructor.
+         *
+         * @param oldOptimalSchedule
+         *         Replaced optimal {@link Schedule}.
+         */
+        private Event(final Schedule oldOptimalSchedule) {
+            this.oldOptimalSchedule = oldOptimalSchedule;
+        }
+    }
+}
@@ -1,46 +1,141 @@
 package com.schedule.core.Graphs.FeasibleSchedules.Patterns;
 
-import com.rits.cloning.Cloner;
 import com.schedule.core.Graphs.FeasibleSchedules.Model.Core.Schedule;
+import com.schedule.core.Graphs.FeasibleSchedules.Service.ScheduleService;
+import com.schedule.core.Graphs.FeasibleSchedules.Wrapper.ScheduleSnapshot;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Best schedule found so far, published as an immutable snapshot so readers never block solvers or see a schedule
+ * while it is being changed.
+ */
 public class OptimalSchedule implements Observable {
 
     /** Logger. */
     private static final Logger LOG = LoggerFactory.getLogger(OptimalSchedule.class);
 
-    private Cloner cloner = new Cloner();
+    /** {@link ScheduleService}. */
+    private final ScheduleService scheduleService = new ScheduleService();
 
-    private ArrayList<Observer> services = new ArrayList<>();
+    /** Delivers improvements to observers off the solver threads. */
+    private final ImprovementEventBus eventBus;
 
-    private Schedule optimalSchedule;
+    /** Current snapshot with the read only schedule built from it. */
+    private final AtomicReference<Publication> publication = new AtomicReference<>();
 
     /**
-     * Gets optimalSchedule.
+     * Constructor.
+     */
+    public OptimalSchedule() {
+        this(new ImprovementEventBus());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param eventBus
+     *         {@link ImprovementEventBus} observers are notified through.
+     */
+    public OptimalSchedule(final ImprovementEventBus eventBus) {
+        this.eventBus = eventBus;
+    }
+
+    /**
+     * Gets optimalSchedule, a read only schedule built from the current snapshot with its longest paths calculated.
+     * It is shared between readers and rejects changes, so it must be forked before being searched from.
      *
-     * @return Value of optimalSchedule.
+     * @return Value of optimalSchedule, null if none was published.
      */
     public Schedule getOptimalSchedule() {
-        return optimalSchedule;
+
+        final Publication current = publication.get();
+        return current == null ? null : current.schedule;
     }
 
     /**
-     * Sets optimal schedule.
+     * Gets snapshot of the optimal schedule, for comparing makespans and fingerprints without touching its graph.
+     *
+     * @return {@link ScheduleSnapshot}, null if none was published.
+     */
+    public ScheduleSnapshot getSnapshot() {
+
+        final Publication current = publication.get();
+        return current == null ? null : current.snapshot;
+    }
+
+    /**
+     * Sets optimal schedule, even if it is worse than the current one, and notifies observers asynchronously.
      *
      * @param optimalSchedule
      *         Optimal Schedule.
      */
-    public synchronized void setOptimalSchedule(final Schedule optimalSchedule) {
+    public void setOptimalSchedule(final Schedule optimalSchedule) {
 
         LOG.debug("Optimal schedule update");
 
-        Schedule oldOptimal = this.optimalSchedule;
-        this.optimalSchedule = optimalSchedule;
+        final Publication oldOptimal = publication.getAndSet(publish(optimalSchedule));
 
-        notifyObservers(oldOptimal);
+        notifyObservers(oldOptimal == null ? null : oldOptimal.schedule);
+    }
+
+    /**
+     * Sets optimal schedule if it beats the current one, by lower makespan then lower fingerprint, and notifies
+     * observers asynchronously. Racing offers never replace a better schedule with a worse one.
+     *
+     * @param schedule
+     *         Candidate {@link Schedule} with its makespan calculated.
+     * @return true if the schedule was published.
+     */
+    public boolean offerIfBetter(final Schedule schedule) {
+
+        final Integer makespan = schedule.getMakespan();
+        if (makespan == null) {
+            return false;
+        }
+        final long fingerprint = schedule.getFingerprint();
+
+        Publication candidate = null;
+        while (true) {
+
+            final Publication current = publication.get();
+            if (current != null && !isBetter(makespan, fingerprint, current.snapshot)) {
+                return false;
+            }
+
+            //Snapshots once, only after the cheap comparison passed
+            if (candidate == null) {
+                candidate = publish(schedule);
+            }
+            if (publication.compareAndSet(current, candidate)) {
+
+                LOG.debug("Optimal schedule improved to {}", makespan);
+
+                notifyObservers(current == null ? null : current.schedule);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Checks makespan and fingerprint beat a snapshot, lower makespan first and lower fingerprint breaking ties.
+     *
+     * @param makespan
+     *         Makespan.
+     * @param fingerprint
+     *         Fingerprint.
+     * @param snapshot
+     *         {@link ScheduleSnapshot}
+     * @return true/false
+     */
+    private boolean isBetter(final int makespan, final long fingerprint, final ScheduleSnapshot snapshot) {
+
+        if (makespan != snapshot.getMakespan()) {
+            return makespan < snapshot.getMakespan();
+        }
+        return fingerprint < snapshot.getFingerprint();
     }
 
     /**
@@ -49,28 +144,85 @@ public class OptimalSchedule implements Observable {
      * @param optimalSchedule
      *         Optimal Schedule.
      */
-    public synchronized void setOptimalScheduleWithoutNotifyingObservers(final Schedule optimalSchedule) {
+    public void setOptimalScheduleWithoutNotifyingObservers(final Schedule optimalSchedule) {
 
         LOG.debug("Optimal schedule update");
-        this.optimalSchedule = optimalSchedule;
+        publication.set(publish(optimalSchedule));
+    }
+
+    /**
+     * Snapshots schedule and builds the read only schedule handed to readers, leaving the given schedule free to
+     * change. Longest paths are calculated before it is published, so readers never calculate them concurrently.
+     *
+     * @param schedule
+     *         {@link Schedule}
+     * @return {@link Publication}
+     */
+    private Publication publish(final Schedule schedule) {
+
+        final ScheduleSnapshot snapshot = ScheduleSnapshot.of(schedule);
+
+        final Schedule readOnlySchedule = snapshot.toSchedule();
+        scheduleService.calculateScheduleData(readOnlySchedule);
+        readOnlySchedule.getLongestPaths();
+        readOnlySchedule.markReadOnly();
+
+        return new Publication(snapshot, readOnlySchedule);
     }
 
     @Override
     public void addObserver(Observer service) {
-        services.add(service);
+        eventBus.subscribe(service);
     }
 
     @Override
     public void removeObserver(Observer service) {
-        services.remove(service);
+        eventBus.unsubscribe(service);
     }
 
+    /**
+     * Publishes replaced optimal on the event bus, observers are told asynchronously with bursts coalesced.
+     *
+     * @param oldOptimalSchedule
+     *         Replaced optimal {@link Schedule}, may be null.
+     */
     @Override
     public void notifyObservers(final Schedule oldOptimalSchedule) {
+        eventBus.publish(oldOptimalSchedule);
+    }
 
-        for (final Observer service : services) {
+    /**
+     * Gets event bus observers are notified through.
+     *
+     * @return {@link ImprovementEventBus}
+     */
+    public ImprovementEventBus getEventBus() {
+        return eventBus;
+    }
 
-            service.update(oldOptimalSchedule);
+    /**
+     * Snapshot published together with the schedule built from it.
+     */
+    private static class Publication {
+
+        /** {@link ScheduleSnapshot}. */
+        private final ScheduleSnapshot snapshot;
+
+        /** Read only {@link Schedule} built from the snapshot. */
+        private final Schedule schedule;
+
+        /**
+         * Constructor.
+         *
+         * @param snapshot
+         *         {@link ScheduleSnapshot}
+         * @param schedule
+         *         Read only {@link Schedule} built from the snapshot.
+         */
+        private Publication(final ScheduleSnapshot snapshot, final Schedule schedule) {
+
+            this.snapshot = snapshot;
+            this.schedule = schedule;
         }
     }
 }
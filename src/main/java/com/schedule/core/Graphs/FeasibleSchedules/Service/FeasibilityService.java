@@ -16,6 +16,15 @@ public class FeasibilityService {
 
     private static final Logger LOG = LoggerFactory.getLogger(FeasibilityService.class);
 
+    /** Operation not yet reached by the cycle search. */
+    private static final byte WHITE = 0;
+
+    /** Operation on the current search path. */
+    private static final byte GREY = 1;
+
+    /** Operation with every successor explored. */
+    private static final byte BLACK = 2;
+
     /**
      * Default constructor.
      */
@@ -109,8 +118,10 @@ public class FeasibilityService {
             Operation op = queue.remove();
 
             //Visit child first before grandchild
-            for (Edge e : op.getActiveEdges()) {
-                if (!(e.getOperationTo() instanceof EndVertex)) {
+            for (int slot = 0; slot < op.getActiveEdgeSlots(); slot++) {
+
+                final Edge e = op.getActiveEdge(slot);
+                if (e != null && !(e.getOperationTo() instanceof EndVertex)) {
 
                     final Operation opTo = e.getOperationTo();
                     if (!bfsOps.contains(opTo)) {
@@ -133,56 +144,68 @@ public class FeasibilityService {
      */
     public boolean hasCycle(final Schedule schedule) {
 
+        return findCycleEdge(schedule).isPresent();
+    }
+
+    /**
+     * Finds an edge closing a cycle with an iterative, colour marking depth first search from every job head, in
+     * O(V+E).
+     *
+     * @param schedule
+     *         {@link Schedule}
+     * @return {@link Edge} back to an operation on the current search path, empty if the schedule is acyclic.
+     */
+    public Optional<Edge> findCycleEdge(final Schedule schedule) {
+
         LOG.trace("Checking cycle");
 
-        List<Operation> visited;
-        boolean response = false;
-        for (int i = 0; i < schedule.getNumJobs(); i++) {
+        final int size = schedule.getNumJobs() * schedule.getNumMachines() + 1;
+        final byte[] colour = new byte[size];
+        final int[] nextSlot = new int[size];
+        final Operation[] stack = new Operation[size];
 
-            visited = new ArrayList<>();
-            final Operation node = schedule.getJobHashMap().get(i);
+        for (final Operation root : schedule.getJobHashMap().values()) {
 
-            if (cycleDetect(node, visited)) {
-                response = true;
+            if (colour[root.getId()] != WHITE) {
+                continue;
             }
-        }
+            colour[root.getId()] = GREY;
+            stack[0] = root;
+            int depth = 1;
 
-        LOG.trace("Finished Checking cycle");
+            while (depth > 0) {
 
-        return response;
-    }
+                final Operation node = stack[depth - 1];
+                final int id = node.getId();
 
-    /**
-     * Detects if path contains a cycle.
-     *
-     * @param node
-     *         Current node.
-     * @param visited
-     *         Visited nodes.
-     * @return true/false
-     */
-    private boolean cycleDetect(final Operation node, final List<Operation> visited) {
+                if (nextSlot[id] == node.getActiveEdgeSlots()) {
 
-        if (visited.contains(node)) {
-            LOG.trace("Node: {}", node);
-            return true;
-        }
+                    colour[id] = BLACK;
+                    depth--;
+                    continue;
+                }
 
-        LOG.trace("Checking node: {}", node.toString());
+                final Edge edge = node.getActiveEdge(nextSlot[id]++);
+                if (edge == null || edge.getOperationTo() instanceof EndVertex) {
+                    continue;
+                }
 
-        visited.add(node);
+                final Operation child = edge.getOperationTo();
+                if (colour[child.getId()] == GREY) {
 
-        LOG.trace("Looping edges: {}", node.getActiveEdges());
-        for (final Edge edge : node.getActiveEdges()) {
+                    LOG.trace("Edge closing cycle: {}", edge);
+                    return Optional.of(edge);
+                }
+                if (colour[child.getId()] == WHITE) {
 
-            if (edge.getOperationTo() instanceof EndVertex) {
-                continue;
-            } else {
-                if (cycleDetect(edge.getOperationTo(), visited)) return true;
+                    colour[child.getId()] = GREY;
+                    stack[depth++] = child;
+                }
             }
         }
 
-        visited.remove(visited.size() - 1);
-        return false;
+        LOG.trace("Finished Checking cycle");
+
+        return Optional.empty();
     }
 }
@@ -1,6 +1,5 @@
 package com.schedule.core.Graphs.FeasibleSchedules.Service;
 
-import com.rits.cloning.Cloner;
 import com.schedule.core.Graphs.FeasibleSchedules.Model.Core.Edge;
 import com.schedule.core.Graphs.FeasibleSchedules.Model.Core.Operation;
 import com.schedule.core.Graphs.FeasibleSchedules.Patterns.OptimalSchedule;
@@ -22,12 +21,6 @@ public class FireflyService {
     /** {@link ScheduleService}. */
     private ScheduleService scheduleService = new ScheduleService();
 
-    /** {@link FeasibilityService}. */
-    private FeasibilityService feasibilityService = new FeasibilityService();
-
-    /** {@link Cloner}. */
-    private Cloner cloner = new Cloner();
-
     /** Schedule state with optimal backbone. */
     private OptimalSchedule optimalSchedule;
 
@@ -100,7 +93,7 @@ public class FireflyService {
         LOG.trace("Optimal Schedule found with score: {}", optimalSchedule.getBackBoneScore());
         LOG.trace("and makespan: {}", optimalSchedule.getMakespan());
 
-        this.optimalSchedule.setOptimalSchedule(cloner.deepClone(optimalSchedule));
+        this.optimalSchedule.setOptimalSchedule(optimalSchedule.fork());
 
     }
 
@@ -149,18 +142,20 @@ public class FireflyService {
 
         final Schedule optimal = optimalSchedule.getOptimalSchedule();
 
-        //Attempts to move toward optimal using edges on local longest paths
+        //Attempts to move toward optimal using edges on local longest paths (critical swaps are always feasible)
         final Set<Edge> longestPathEdges = schedule.getLongestPathEdges();
-        final Optional<Edge> edgeFlipped = findEdgeAndSwitchInSet(longestPathEdges);
+        final Optional<Edge> edgeFlipped = findEdgeInSet(longestPathEdges);
 
         LOG.trace("Found edge on longest path: {}", edgeFlipped);
 
+        edgeFlipped.ifPresent(edge -> scheduleService.switchEdge(schedule, edge));
+
         if (!edgeFlipped.isPresent()) {
 
             boolean acceptedFlip = false;
             final Set<Edge> machineEdgesNotOnLongestPath = schedule.getAllMachineEdgesNotOnLongestPath();
 
-            Optional<Edge> edgeFlip = findEdgeAndSwitchInSet(machineEdgesNotOnLongestPath);
+            Optional<Edge> edgeFlip = findEdgeInSet(machineEdgesNotOnLongestPath);
 
             LOG.trace("Found edge not on longest path to flip: {}", edgeFlip);
 
@@ -168,25 +163,25 @@ public class FireflyService {
                 if (edgeFlip.isPresent()) {
 
                     final Edge edge = edgeFlip.get();
-                    if (feasibilityService.scheduleIsFeasibleProof(edge.getOperationFrom(), edge.getOperationTo())) {
+                    if (scheduleService.isSwitchFeasible(schedule, edge)) {
 
-                        LOG.trace("Edge flip created feasible schedule");
+                        LOG.trace("Edge flip creates feasible schedule");
 
-                        scheduleService.calculateScheduleData(schedule);
+                        scheduleService.switchEdge(schedule, edge);
+                        scheduleService.updateScheduleData(schedule);
 
                         acceptedFlip = true;
                     } else {
 
-                        LOG.trace("Edge flip created infeasible schedule");
+                        LOG.trace("Edge flip would create infeasible schedule");
 
-                        scheduleService.switchEdge(edgeFlip.get());
                         machineEdgesNotOnLongestPath.remove(edge);
-                        edgeFlip = findEdgeAndSwitchInSet(machineEdgesNotOnLongestPath);
+                        edgeFlip = findEdgeInSet(machineEdgesNotOnLongestPath);
                     }
 
                 } else {
 
-                    if (schedule.hashCode() != optimal.hashCode()) {
+                    if (schedule.getFingerprint() != optimal.getFingerprint()) {
 
                         LOG.trace("Can't get any closer to optimal using firefly");
                     } else {
@@ -196,26 +191,22 @@ public class FireflyService {
                     return false;
                 }
             }
-
-        } else {
-
-            scheduleService.calculateScheduleData(schedule);
         }
 
-        scheduleService.calculateScheduleData(schedule);
+        scheduleService.updateScheduleData(schedule);
 
         return true;
     }
 
     /**
-     * Using local edge, determines if optimal has equal edge, if not, switches edge if order needs changing, otherwise
+     * Using local edge, determines if optimal has equal edge, if not, returns edge if order needs changing, otherwise
      * continue looking for edge options.
      *
      * @param edges
      *         Set of {@link Edge}
-     * @return Flipped edge or null
+     * @return Edge to flip or null
      */
-    private Optional<Edge> findEdgeAndSwitchInSet(final Set<Edge> edges) {
+    private Optional<Edge> findEdgeInSet(final Set<Edge> edges) {
 
         final Schedule optimal = optimalSchedule.getOptimalSchedule();
         final Iterator<Edge> edgeIterator = edges.iterator();
@@ -239,10 +230,9 @@ public class FireflyService {
                 //If order of operations is different in optimal, reorder local
                 final Operation opTo = optimal.locateOperation(currentEdge.getOperationTo().getJob(),
                                                                currentEdge.getOperationTo().getMachine());
-                if (!scheduleService.isInOrder(opFrom, opTo)) {
+                if (!scheduleService.isInOrder(optimal, opFrom.getId(), opTo.getId())) {
 
                     edgeFlipped = currentEdge;
-                    scheduleService.switchEdge(currentEdge);
                     break;
                 }
             } else {
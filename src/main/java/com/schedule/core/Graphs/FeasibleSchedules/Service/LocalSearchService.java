@@ -2,7 +2,10 @@ package com.schedule.core.Graphs.FeasibleSchedules.Service;
 
 import com.schedule.core.Graphs.FeasibleSchedules.Model.Core.Edge;
 import com.schedule.core.Graphs.FeasibleSchedules.Model.Core.Schedule;
+import com.schedule.core.Graphs.FeasibleSchedules.Model.Other.Neighbourhood;
 import com.schedule.core.Graphs.FeasibleSchedules.Threads.LocalSearchCallable;
+import com.schedule.core.Graphs.FeasibleSchedules.Threads.SolverRuntime;
+import com.schedule.core.Graphs.FeasibleSchedules.Wrapper.NeighbourMove;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -17,14 +20,34 @@ public class LocalSearchService {
     /** {@link ScheduleService}. */
     final ScheduleService scheduleService;
 
+    /** {@link NeighbourhoodService}. */
+    final NeighbourhoodService neighbourhoodService;
+
     /** Local optimas for SA. */
     private Set<Schedule> localOptimalSchedules;
 
+    /** Neighbourhood moves are drawn from. */
+    private Neighbourhood neighbourhood = Neighbourhood.MOST_VISITED_EDGE;
+
+    /** {@link SolverRuntime} local searches run on. */
+    private final SolverRuntime solverRuntime;
+
     public LocalSearchService() {
+        this(SolverRuntime.getShared());
+    }
 
-        scheduleService = new ScheduleService();
-        localOptimalSchedules = new HashSet<>();
+    /**
+     * Constructor.
+     *
+     * @param solverRuntime
+     *         {@link SolverRuntime} local searches run on.
+     */
+    public LocalSearchService(final SolverRuntime solverRuntime) {
 
+        this.solverRuntime = solverRuntime;
+        scheduleService = new ScheduleService();
+        neighbourhoodService = new NeighbourhoodService(scheduleService);
+        localOptimalSchedules = ConcurrentHashMap.newKeySet();
     }
 
     /**
@@ -36,8 +59,6 @@ public class LocalSearchService {
      */
     public Set<Schedule> executeLocalSearch(final Set<Schedule> scheduleSet) {
 
-        final ExecutorService executorService = Executors.newFixedThreadPool(5);
-
         // Build threads
         final List<Callable<Schedule>> callables = new ArrayList<>();
         for (final Schedule schedule : scheduleSet) {
@@ -47,7 +68,7 @@ public class LocalSearchService {
         }
         try {
 
-            final List<Future<Schedule>> results = executorService.invokeAll(callables);
+            final List<Future<Schedule>> results = solverRuntime.invokeAll(callables);
 
             for (final Future<Schedule> result : results) {
                 result.get();
@@ -58,14 +79,15 @@ public class LocalSearchService {
             e.printStackTrace();
         }
 
-        // Terminate executor
-        executorService.shutdown();
-
         return localOptimalSchedules;
     }
 
     public Schedule executeLocalSearchIteratively(final Schedule schedule, final Integer maxIterations) {
 
+        if (neighbourhood != Neighbourhood.MOST_VISITED_EDGE) {
+            return executeNeighbourhoodSearch(schedule, maxIterations);
+        }
+
         ArrayList<Edge> longestPathEdges = schedule.getLongestPathArray();
 
         for (int i = 0; i < maxIterations; i++) {
@@ -73,29 +95,25 @@ public class LocalSearchService {
             final Integer makespan = schedule.getMakespan();
             LOG.trace("Current makespan: {}", schedule.getMakespan());
 
-            final Optional<Edge> edgeFlip = scheduleService.flipMostVisitedEdgeLongestPath(schedule,
-                                                                                           longestPathEdges, false);
+            final Optional<Edge> edgeFlip = scheduleService.getMostVisitedEdgeLongestPath(schedule,
+                                                                                          longestPathEdges, false);
 
             if (edgeFlip.isPresent()) {
 
-                LOG.trace("Edge flipped: {}", edgeFlip);
-
-                scheduleService.calculateScheduleData(schedule);
-                scheduleService.calculateMakeSpan(schedule);
+                LOG.trace("Edge considered: {}", edgeFlip);
 
-                if (!(schedule.getMakespan() < makespan)) {
+                // Scored without touching the graph, only an improving move is applied
+                if (!(scheduleService.evaluateMakespanAfterSwitch(schedule, edgeFlip.get()) < makespan)) {
 
-                    LOG.trace("Moving away from local minima, undoing move");
+                    LOG.trace("Moving away from local minima, discarding move");
 
                     longestPathEdges.removeAll(Collections.singleton(edgeFlip.get()));
-
-                    //flip back if not improved schedule
-                    scheduleService.switchEdge(edgeFlip.get());
-                    scheduleService.calculateScheduleData(schedule);
                 } else {
 
                     LOG.trace("Accepted move");
 
+                    scheduleService.switchEdge(schedule, edgeFlip.get());
+                    scheduleService.updateScheduleData(schedule);
                     longestPathEdges = schedule.getLongestPathArray();
                 }
             } else {
@@ -106,6 +124,55 @@ public class LocalSearchService {
         return schedule;
     }
 
+    /**
+     * Best improvement descent over the critical block neighbourhood, stops at the first local optimum.
+     *
+     * @param schedule
+     *         {@link Schedule}
+     * @param maxIterations
+     *         Maximum number of moves applied.
+     * @return {@link Schedule}
+     */
+    private Schedule executeNeighbourhoodSearch(final Schedule schedule, final Integer maxIterations) {
+
+        for (int i = 0; i < maxIterations; i++) {
+
+            final Optional<NeighbourMove> bestMove = neighbourhoodService.findBestMove(schedule, neighbourhood);
+
+            if (!bestMove.isPresent() || !(bestMove.get().getMakespan() < schedule.getMakespan())) {
+
+                LOG.trace("Reached local minima after {} moves", i);
+                break;
+            }
+
+            LOG.trace("Accepted move: {}", bestMove.get());
+
+            neighbourhoodService.applyMove(schedule, bestMove.get());
+            scheduleService.updateScheduleData(schedule);
+        }
+
+        return schedule;
+    }
+
+    /**
+     * Gets Neighbourhood moves are drawn from.
+     *
+     * @return Value of Neighbourhood moves are drawn from.
+     */
+    public Neighbourhood getNeighbourhood() {
+        return neighbourhood;
+    }
+
+    /**
+     * Sets new Neighbourhood moves are drawn from.
+     *
+     * @param neighbourhood
+     *         New value of Neighbourhood moves are drawn from.
+     */
+    public void setNeighbourhood(final Neighbourhood neighbourhood) {
+        this.neighbourhood = neighbourhood;
+    }
+
     /**
      * Gets Local optimas for SA..
      *
@@ -0,0 +1,902 @@
+package com.schedule.core.Graphs.FeasibleSchedules.Service;
+
+import com.schedule.core.Graphs.FeasibleSchedules.Model.Core.PackedSchedule;
+import com.schedule.core.Graphs.FeasibleSchedules.Wrapper.CriticalPath;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+
+/**
+ * Allocation free makespan evaluation over the arrays of a {@link PackedSchedule}.
+ */
+public class MakespanService {
+
+    /** Logger. */
+    private static final Logger LOG = LoggerFactory.getLogger(MakespanService.class);
+
+    /** Scratch buffers reused by every evaluation on the same thread. */
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    /**
+     * Constructor.
+     */
+    public MakespanService() {
+    }
+
+    /**
+     * Calculates heads and tails of every operation in topological order and stores them, the makespan and
+     * acyclicity on the packed schedule. A maintained topological order is reused, otherwise one is built with Kahn's
+     * algorithm and kept.
+     *
+     * @param packedSchedule
+     *         {@link PackedSchedule}
+     * @return Makespan, or {@link Integer#MAX_VALUE} if the machine sequences contain a cycle.
+     */
+    public int calculateMakespan(final PackedSchedule packedSchedule) {
+
+        final int numOperations = packedSchedule.getNumOperations();
+        final int[] order = packedSchedule.getTopologicalOrder();
+        final int[] heads = packedSchedule.getHeads();
+        final int[] tails = packedSchedule.getTails();
+
+        final int queued = packedSchedule.isOrdered() ? numOperations : orderOperations(packedSchedule);
+
+        int makespan = 0;
+        if (packedSchedule.isOrdered()) {
+
+            Arrays.fill(heads, 0, numOperations, 0);
+            for (int next = 0; next < numOperations; next++) {
+
+                final int id = order[next];
+                final int completion = heads[id] + packedSchedule.getProcessingTime(id);
+                makespan = Math.max(makespan, completion);
+
+                final int jobSuccessor = packedSchedule.getJobSuccessor(id);
+                if (jobSuccessor != PackedSchedule.NONE && completion > heads[jobSuccessor]) {
+                    heads[jobSuccessor] = completion;
+                }
+                final int machineSuccessor = packedSchedule.getMachineSuccessor(id);
+                if (machineSuccessor != PackedSchedule.NONE && completion > heads[machineSuccessor]) {
+                    heads[machineSuccessor] = completion;
+                }
+            }
+        } else {
+
+            LOG.trace("Cycle detected, {} of {} operations ordered", queued, numOperations);
+            makespan = Integer.MAX_VALUE;
+        }
+
+        // Tails in reverse topological order
+        for (int next = queued - 1; next >= 0; next--) {
+
+            final int id = order[next];
+            tails[id] = tail(packedSchedule, tails, id);
+        }
+
+        final boolean acyclic = packedSchedule.isOrdered();
+        packedSchedule.setAcyclic(acyclic);
+        packedSchedule.setMakespan(makespan);
+        packedSchedule.setTimed(acyclic);
+
+        return makespan;
+    }
+
+    /**
+     * Builds the topological order with Kahn's algorithm, marking the packed schedule ordered if every operation
+     * could be placed.
+     *
+     * @return Number of operations placed, fewer than all if the machine sequences contain a cycle.
+     */
+    private int orderOperations(final PackedSchedule packedSchedule) {
+
+        final int numOperations = packedSchedule.getNumOperations();
+        final int[] indegree = SCRATCH.get().ensureCapacity(numOperations).indegree;
+        final int[] order = packedSchedule.getTopologicalOrder();
+        final int[] positions = packedSchedule.getTopologicalPositions();
+
+        int queued = 0;
+        for (int id = 0; id < numOperations; id++) {
+
+            indegree[id] = 0;
+            if (packedSchedule.getJobPredecessor(id) != PackedSchedule.NONE) {
+                indegree[id]++;
+            }
+            if (packedSchedule.getMachinePredecessor(id) != PackedSchedule.NONE) {
+                indegree[id]++;
+            }
+            if (indegree[id] == 0) {
+                order[queued++] = id;
+            }
+        }
+
+        for (int next = 0; next < queued; next++) {
+
+            final int id = order[next];
+            positions[id] = next;
+
+            final int jobSuccessor = packedSchedule.getJobSuccessor(id);
+            if (jobSuccessor != PackedSchedule.NONE && --indegree[jobSuccessor] == 0) {
+                order[queued++] = jobSuccessor;
+            }
+            final int machineSuccessor = packedSchedule.getMachineSuccessor(id);
+            if (machineSuccessor != PackedSchedule.NONE && --indegree[machineSuccessor] == 0) {
+                order[queued++] = machineSuccessor;
+            }
+        }
+
+        packedSchedule.setOrdered(queued == numOperations);
+
+        return queued;
+    }
+
+    /**
+     * Repairs the topological order after two adjacent machine operations were swapped (Pearce-Kelly). Only
+     * operations placed between the pair are searched: those reachable from {@code second} and those reaching
+     * {@code first}, which are then reordered among their own positions.
+     *
+     * @param packedSchedule
+     *         Ordered {@link PackedSchedule}
+     * @param first
+     *         Operation now first of the pair.
+     * @param second
+     *         Operation now directly after {@code first}.
+     * @return false if the swap created a cycle, in which case the packed schedule is marked cyclic and unordered.
+     */
+    public boolean repairOrder(final PackedSchedule packedSchedule, final int first, final int second) {
+
+        final int[] order = packedSchedule.getTopologicalOrder();
+        final int[] positions = packedSchedule.getTopologicalPositions();
+        final int lower = positions[second];
+        final int upper = positions[first];
+        if (upper < lower) {
+            return true;
+        }
+
+        final Scratch scratch = SCRATCH.get().ensureCapacity(packedSchedule.getNumOperations());
+        scratch.nextStamp();
+
+        final int forwardSize = collectAffected(packedSchedule, scratch, second, first, upper, true);
+        if (forwardSize < 0) {
+
+            LOG.trace("Swap placing {} before {} created a cycle", first, second);
+
+            packedSchedule.setOrdered(false);
+            packedSchedule.setAcyclic(false);
+            packedSchedule.setTimed(false);
+            packedSchedule.setMakespan(Integer.MAX_VALUE);
+            return false;
+        }
+        final int backwardSize = collectAffected(packedSchedule, scratch, first, second, lower, false);
+
+        // Free positions, then affected operations sorted by their old position
+        final int[] free = scratch.region;
+        for (int index = 0; index < backwardSize; index++) {
+            free[index] = positions[scratch.backward[index]];
+        }
+        for (int index = 0; index < forwardSize; index++) {
+            free[backwardSize + index] = positions[scratch.forward[index]];
+        }
+        Arrays.sort(free, 0, backwardSize + forwardSize);
+        sortByPosition(scratch.backward, backwardSize, order, positions);
+        sortByPosition(scratch.forward, forwardSize, order, positions);
+
+        // Operations reaching the first now precede every operation reachable from the second
+        for (int index = 0; index < backwardSize + forwardSize; index++) {
+
+            final int id = index < backwardSize ? scratch.backward[index] : scratch.forward[index - backwardSize];
+            order[free[index]] = id;
+            positions[id] = free[index];
+        }
+
+        return true;
+    }
+
+    /**
+     * Collects operations placed within the bound reachable from (forward) or reaching (backward) the root.
+     *
+     * @return Number collected, -1 if the target was reached.
+     */
+    private int collectAffected(final PackedSchedule packedSchedule, final Scratch scratch, final int root,
+                                final int target, final int bound, final boolean forward) {
+
+        final int[] positions = packedSchedule.getTopologicalPositions();
+        final int[] collected = forward ? scratch.forward : scratch.backward;
+        final int[] stack = scratch.stack;
+
+        scratch.mark(root);
+        stack[0] = root;
+        int stackSize = 1;
+        int size = 0;
+
+        while (stackSize > 0) {
+
+            final int id = stack[--stackSize];
+            collected[size++] = id;
+
+            final int jobNeighbour = forward ? packedSchedule.getJobSuccessor(id)
+                    : packedSchedule.getJobPredecessor(id);
+            final int machineNeighbour = forward ? packedSchedule.getMachineSuccessor(id)
+                    : packedSchedule.getMachinePredecessor(id);
+
+            if (jobNeighbour == target || machineNeighbour == target) {
+                return -1;
+            }
+            if (isAffected(scratch, positions, jobNeighbour, bound, forward)) {
+                scratch.mark(jobNeighbour);
+                stack[stackSize++] = jobNeighbour;
+            }
+            if (isAffected(scratch, positions, machineNeighbour, bound, forward)) {
+                scratch.mark(machineNeighbour);
+                stack[stackSize++] = machineNeighbour;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Checks an operation exists, is not yet collected and is placed before (forward) or after (backward) the bound.
+     */
+    private boolean isAffected(final Scratch scratch, final int[] positions, final int id, final int bound,
+                               final boolean forward) {
+
+        return id != PackedSchedule.NONE && !scratch.isMarked(id)
+                && (forward ? positions[id] < bound : positions[id] > bound);
+    }
+
+    /**
+     * Sorts operations by topological position, before the order is rewritten.
+     */
+    private void sortByPosition(final int[] ids, final int size, final int[] order, final int[] positions) {
+
+        for (int index = 0; index < size; index++) {
+            ids[index] = positions[ids[index]];
+        }
+        Arrays.sort(ids, 0, size);
+        for (int index = 0; index < size; index++) {
+            ids[index] = order[ids[index]];
+        }
+    }
+
+    /**
+     * Checks whether swapping two adjacent machine operations keeps the graph acyclic. The swap closes a cycle only
+     * if the job successor of {@code from} reaches the job predecessor of {@code to}. Topological positions and heads
+     * strictly increase along every path, so with a maintained order or current timing most pairs (every pair of
+     * adjacent critical operations) are decided in constant time and the remaining ones by a search pruned to
+     * operations placed before the target.
+     *
+     * @param packedSchedule
+     *         {@link PackedSchedule}
+     * @param from
+     *         Operation currently first.
+     * @param to
+     *         Operation currently directly after {@code from}.
+     * @return true if the swap keeps the graph acyclic.
+     */
+    public boolean isSwapFeasible(final PackedSchedule packedSchedule, final int from, final int to) {
+
+        final int source = packedSchedule.getJobSuccessor(from);
+        final int target = packedSchedule.getJobPredecessor(to);
+        if (source == PackedSchedule.NONE || target == PackedSchedule.NONE) {
+            return true;
+        }
+        if (source == target) {
+            return false;
+        }
+
+        final boolean ordered = packedSchedule.isOrdered();
+        final int[] positions = packedSchedule.getTopologicalPositions();
+        if (ordered && positions[source] > positions[target]) {
+            return true;
+        }
+        final boolean timed = packedSchedule.isTimed();
+        final int[] heads = packedSchedule.getHeads();
+        if (timed && packedSchedule.getCompletionTime(source) > heads[target]) {
+            return true;
+        }
+
+        final Scratch scratch = SCRATCH.get().ensureCapacity(packedSchedule.getNumOperations());
+        final int positionBound = ordered ? positions[target] : Integer.MAX_VALUE;
+        final int timeBound = timed ? heads[target] : Integer.MAX_VALUE;
+
+        return !reaches(packedSchedule, scratch, source, target, positionBound, timeBound);
+    }
+
+    /**
+     * Updates heads, tails and makespan after two adjacent machine operations were swapped. Heads are recalculated
+     * only downstream of the pair and tails only upstream of it; falls back to a full calculation when the timing was
+     * not current.
+     *
+     * @param packedSchedule
+     *         {@link PackedSchedule}
+     * @param first
+     *         Operation now first of the pair.
+     * @param second
+     *         Operation now directly after {@code first}.
+     * @return Makespan, or {@link Integer#MAX_VALUE} if the swap created a cycle.
+     */
+    public int updateAfterSwap(final PackedSchedule packedSchedule, final int first, final int second) {
+
+        if (!packedSchedule.isTimed()) {
+            return calculateMakespan(packedSchedule);
+        }
+
+        final Scratch scratch = SCRATCH.get().ensureCapacity(packedSchedule.getNumOperations());
+
+        if (!updateHeads(packedSchedule, scratch, first) || !updateTails(packedSchedule, scratch, second)) {
+
+            LOG.trace("Swap of {} and {} created a cycle", first, second);
+
+            packedSchedule.setAcyclic(false);
+            packedSchedule.setTimed(false);
+            packedSchedule.setMakespan(Integer.MAX_VALUE);
+
+            return Integer.MAX_VALUE;
+        }
+
+        int makespan = 0;
+        for (int job = 0; job < packedSchedule.getNumJobs(); job++) {
+            makespan = Math.max(makespan, packedSchedule.getCompletionTime(packedSchedule.getLastJobOperation(job)));
+        }
+        packedSchedule.setMakespan(makespan);
+
+        return makespan;
+    }
+
+    /**
+     * Recalculates heads of every operation reachable from the root, in Kahn order within that region.
+     *
+     * @return false if the region contains a cycle.
+     */
+    private boolean updateHeads(final PackedSchedule packedSchedule, final Scratch scratch, final int root) {
+
+        final int[] heads = packedSchedule.getHeads();
+        final int[] indegree = scratch.indegree;
+        final int[] order = scratch.order;
+        final int size = collectRegion(packedSchedule, scratch, root, true);
+
+        int queued = 0;
+        for (int index = 0; index < size; index++) {
+
+            final int id = scratch.region[index];
+            int head = 0;
+            indegree[id] = 0;
+
+            final int jobPredecessor = packedSchedule.getJobPredecessor(id);
+            if (jobPredecessor != PackedSchedule.NONE) {
+                if (scratch.isMarked(jobPredecessor)) {
+                    indegree[id]++;
+                } else {
+                    head = packedSchedule.getCompletionTime(jobPredecessor);
+                }
+            }
+            final int machinePredecessor = packedSchedule.getMachinePredecessor(id);
+            if (machinePredecessor != PackedSchedule.NONE) {
+                if (scratch.isMarked(machinePredecessor)) {
+                    indegree[id]++;
+                } else {
+                    head = Math.max(head, packedSchedule.getCompletionTime(machinePredecessor));
+                }
+            }
+
+            heads[id] = head;
+            if (indegree[id] == 0) {
+                order[queued++] = id;
+            }
+        }
+
+        for (int next = 0; next < queued; next++) {
+
+            final int id = order[next];
+            final int completion = packedSchedule.getCompletionTime(id);
+
+            final int jobSuccessor = packedSchedule.getJobSuccessor(id);
+            if (jobSuccessor != PackedSchedule.NONE) {
+                heads[jobSuccessor] = Math.max(heads[jobSuccessor], completion);
+                if (--indegree[jobSuccessor] == 0) {
+                    order[queued++] = jobSuccessor;
+                }
+            }
+            final int machineSuccessor = packedSchedule.getMachineSuccessor(id);
+            if (machineSuccessor != PackedSchedule.NONE) {
+                heads[machineSuccessor] = Math.max(heads[machineSuccessor], completion);
+                if (--indegree[machineSuccessor] == 0) {
+                    order[queued++] = machineSuccessor;
+                }
+            }
+        }
+
+        return queued == size;
+    }
+
+    /**
+     * Recalculates tails of every operation the root is reachable from, in reverse Kahn order within that region.
+     *
+     * @return false if the region contains a cycle.
+     */
+    private boolean updateTails(final PackedSchedule packedSchedule, final Scratch scratch, final int root) {
+
+        final int[] tails = packedSchedule.getTails();
+        final int[] outdegree = scratch.indegree;
+        final int[] order = scratch.order;
+        final int size = collectRegion(packedSchedule, scratch, root, false);
+
+        int queued = 0;
+        for (int index = 0; index < size; index++) {
+
+            final int id = scratch.region[index];
+            int tail = 0;
+            outdegree[id] = 0;
+
+            final int jobSuccessor = packedSchedule.getJobSuccessor(id);
+            if (jobSuccessor != PackedSchedule.NONE) {
+                if (scratch.isMarked(jobSuccessor)) {
+                    outdegree[id]++;
+                } else {
+                    tail = tails[jobSuccessor] + packedSchedule.getProcessingTime(jobSuccessor);
+                }
+            }
+            final int machineSuccessor = packedSchedule.getMachineSuccessor(id);
+            if (machineSuccessor != PackedSchedule.NONE) {
+                if (scratch.isMarked(machineSuccessor)) {
+                    outdegree[id]++;
+                } else {
+                    tail = Math.max(tail, tails[machineSuccessor] + packedSchedule.getProcessingTime(machineSuccessor));
+                }
+            }
+
+            tails[id] = tail;
+            if (outdegree[id] == 0) {
+                order[queued++] = id;
+            }
+        }
+
+        for (int next = 0; next < queued; next++) {
+
+            final int id = order[next];
+            final int length = tails[id] + packedSchedule.getProcessingTime(id);
+
+            final int jobPredecessor = packedSchedule.getJobPredecessor(id);
+            if (jobPredecessor != PackedSchedule.NONE) {
+                tails[jobPredecessor] = Math.max(tails[jobPredecessor], length);
+                if (--outdegree[jobPredecessor] == 0) {
+                    order[queued++] = jobPredecessor;
+                }
+            }
+            final int machinePredecessor = packedSchedule.getMachinePredecessor(id);
+            if (machinePredecessor != PackedSchedule.NONE) {
+                tails[machinePredecessor] = Math.max(tails[machinePredecessor], length);
+                if (--outdegree[machinePredecessor] == 0) {
+                    order[queued++] = machinePredecessor;
+                }
+            }
+        }
+
+        return queued == size;
+    }
+
+    /**
+     * Finds a single critical path with one backward pass over the heads, preferring machine predecessors on ties so
+     * critical blocks are kept whole.
+     *
+     * @param packedSchedule
+     *         {@link PackedSchedule} with current, acyclic heads.
+     * @return {@link CriticalPath}
+     */
+    public CriticalPath findCriticalPath(final PackedSchedule packedSchedule) {
+
+        final Scratch scratch = SCRATCH.get().ensureCapacity(packedSchedule.getNumOperations());
+        final int[] reversed = scratch.stack;
+
+        int current = PackedSchedule.NONE;
+        for (int job = 0; job < packedSchedule.getNumJobs(); job++) {
+
+            final int last = packedSchedule.getLastJobOperation(job);
+            if (packedSchedule.getCompletionTime(last) == packedSchedule.getMakespan()) {
+                current = last;
+                break;
+            }
+        }
+
+        int size = 0;
+        while (current != PackedSchedule.NONE) {
+
+            reversed[size++] = current;
+
+            final int head = packedSchedule.getHeads()[current];
+            final int machinePredecessor = packedSchedule.getMachinePredecessor(current);
+            final int jobPredecessor = packedSchedule.getJobPredecessor(current);
+
+            if (head == 0) {
+                current = PackedSchedule.NONE;
+            } else if (machinePredecessor != PackedSchedule.NONE
+                    && packedSchedule.getCompletionTime(machinePredecessor) == head) {
+                current = machinePredecessor;
+            } else {
+                current = jobPredecessor;
+            }
+        }
+
+        final int[] operations = new int[size];
+        final boolean[] machineArc = new boolean[size];
+        for (int index = 0; index < size; index++) {
+
+            operations[index] = reversed[size - 1 - index];
+            if (index > 0) {
+                machineArc[index - 1] = packedSchedule.getMachineSuccessor(operations[index - 1]) == operations[index];
+            }
+        }
+
+        return new CriticalPath(operations, machineArc);
+    }
+
+    /**
+     * Estimates makespan after swapping two adjacent machine operations in constant time (Taillard), from the current
+     * heads and tails. Exact for the longest path through the swapped pair, a lower bound of the new makespan
+     * otherwise.
+     *
+     * @param packedSchedule
+     *         {@link PackedSchedule} with current heads and tails.
+     * @param from
+     *         Operation currently first.
+     * @param to
+     *         Operation currently directly after {@code from}.
+     * @return Estimated makespan.
+     */
+    public int estimateSwap(final PackedSchedule packedSchedule, final int from, final int to) {
+
+        final int[] tails = packedSchedule.getTails();
+
+        final int headTo = Math.max(completion(packedSchedule, packedSchedule.getJobPredecessor(to)),
+                                    completion(packedSchedule, packedSchedule.getMachinePredecessor(from)));
+        final int headFrom = Math.max(completion(packedSchedule, packedSchedule.getJobPredecessor(from)),
+                                      headTo + packedSchedule.getProcessingTime(to));
+
+        final int tailFrom = Math.max(length(packedSchedule, tails, packedSchedule.getJobSuccessor(from)),
+                                      length(packedSchedule, tails, packedSchedule.getMachineSuccessor(to)));
+        final int tailTo = Math.max(length(packedSchedule, tails, packedSchedule.getJobSuccessor(to)),
+                                    tailFrom + packedSchedule.getProcessingTime(from));
+
+        return Math.max(headTo + packedSchedule.getProcessingTime(to) + tailTo,
+                        headFrom + packedSchedule.getProcessingTime(from) + tailFrom);
+    }
+
+    /**
+     * Calculates the exact makespan after swapping two adjacent machine operations without modifying the packed
+     * schedule. Only heads downstream of the pair are recalculated, into scratch buffers.
+     *
+     * @param packedSchedule
+     *         {@link PackedSchedule} with current heads.
+     * @param from
+     *         Operation currently first.
+     * @param to
+     *         Operation currently directly after {@code from}.
+     * @return Makespan, or {@link Integer#MAX_VALUE} if the swap would create a cycle.
+     */
+    public int evaluateSwap(final PackedSchedule packedSchedule, final int from, final int to) {
+
+        if (packedSchedule.getMachineSuccessor(from) != to) {
+            throw new IllegalStateException("Operation " + to + " does not directly follow " + from);
+        }
+
+        final Scratch scratch = SCRATCH.get().ensureCapacity(packedSchedule.getNumOperations());
+        final int[] stack = scratch.stack;
+        final int[] region = scratch.region;
+        final int[] indegree = scratch.indegree;
+        final int[] order = scratch.order;
+        final int[] heads = scratch.heads;
+        final int before = packedSchedule.getMachinePredecessor(from);
+        final int after = packedSchedule.getMachineSuccessor(to);
+
+        // Region downstream of the new first operation of the pair
+        scratch.nextStamp();
+        int size = 0;
+        int top = 0;
+        stack[top++] = to;
+        scratch.mark(to);
+        while (top > 0) {
+
+            final int id = stack[--top];
+            region[size++] = id;
+
+            final int jobSuccessor = packedSchedule.getJobSuccessor(id);
+            if (jobSuccessor != PackedSchedule.NONE && !scratch.isMarked(jobSuccessor)) {
+                scratch.mark(jobSuccessor);
+                stack[top++] = jobSuccessor;
+            }
+            final int machineSuccessor = swappedSuccessor(packedSchedule, id, before, from, to, after);
+            if (machineSuccessor != PackedSchedule.NONE && !scratch.isMarked(machineSuccessor)) {
+                scratch.mark(machineSuccessor);
+                stack[top++] = machineSuccessor;
+            }
+        }
+
+        int queued = 0;
+        for (int index = 0; index < size; index++) {
+
+            final int id = region[index];
+            int head = 0;
+            indegree[id] = 0;
+
+            final int jobPredecessor = packedSchedule.getJobPredecessor(id);
+            if (jobPredecessor != PackedSchedule.NONE) {
+                if (scratch.isMarked(jobPredecessor)) {
+                    indegree[id]++;
+                } else {
+                    head = packedSchedule.getCompletionTime(jobPredecessor);
+                }
+            }
+            final int machinePredecessor = swappedPredecessor(packedSchedule, id, before, from, to, after);
+            if (machinePredecessor != PackedSchedule.NONE) {
+                if (scratch.isMarked(machinePredecessor)) {
+                    indegree[id]++;
+                } else {
+                    head = Math.max(head, packedSchedule.getCompletionTime(machinePredecessor));
+                }
+            }
+
+            heads[id] = head;
+            if (indegree[id] == 0) {
+                order[queued++] = id;
+            }
+        }
+
+        for (int next = 0; next < queued; next++) {
+
+            final int id = order[next];
+            final int completion = heads[id] + packedSchedule.getProcessingTime(id);
+
+            final int jobSuccessor = packedSchedule.getJobSuccessor(id);
+            if (jobSuccessor != PackedSchedule.NONE) {
+                heads[jobSuccessor] = Math.max(heads[jobSuccessor], completion);
+                if (--indegree[jobSuccessor] == 0) {
+                    order[queued++] = jobSuccessor;
+                }
+            }
+            final int machineSuccessor = swappedSuccessor(packedSchedule, id, before, from, to, after);
+            if (machineSuccessor != PackedSchedule.NONE) {
+                heads[machineSuccessor] = Math.max(heads[machineSuccessor], completion);
+                if (--indegree[machineSuccessor] == 0) {
+                    order[queued++] = machineSuccessor;
+                }
+            }
+        }
+
+        if (queued != size) {
+            return Integer.MAX_VALUE;
+        }
+
+        int makespan = 0;
+        for (int job = 0; job < packedSchedule.getNumJobs(); job++) {
+
+            final int last = packedSchedule.getLastJobOperation(job);
+            makespan = Math.max(makespan, scratch.isMarked(last)
+                    ? heads[last] + packedSchedule.getProcessingTime(last)
+                    : packedSchedule.getCompletionTime(last));
+        }
+
+        return makespan;
+    }
+
+    /**
+     * Gets machine successor as if {@code from} and {@code to} were swapped.
+     */
+    private int swappedSuccessor(final PackedSchedule packedSchedule, final int id, final int before,
+                                 final int from, final int to, final int after) {
+
+        if (id == to) {
+            return from;
+        } else if (id == from) {
+            return after;
+        } else if (id == before) {
+            return to;
+        }
+        return packedSchedule.getMachineSuccessor(id);
+    }
+
+    /**
+     * Gets machine predecessor as if {@code from} and {@code to} were swapped.
+     */
+    private int swappedPredecessor(final PackedSchedule packedSchedule, final int id, final int before,
+                                   final int from, final int to, final int after) {
+
+        if (id == to) {
+            return before;
+        } else if (id == from) {
+            return to;
+        } else if (id == after) {
+            return from;
+        }
+        return packedSchedule.getMachinePredecessor(id);
+    }
+
+    /**
+     * Gets completion time of an operation, 0 if missing.
+     */
+    private int completion(final PackedSchedule packedSchedule, final int id) {
+        return id == PackedSchedule.NONE ? 0 : packedSchedule.getCompletionTime(id);
+    }
+
+    /**
+     * Gets processing time plus tail of an operation, 0 if missing.
+     */
+    private int length(final PackedSchedule packedSchedule, final int[] tails, final int id) {
+        return id == PackedSchedule.NONE ? 0 : tails[id] + packedSchedule.getProcessingTime(id);
+    }
+
+    /**
+     * Marks and lists every operation reachable from the root, following successors or predecessors.
+     *
+     * @return Number of operations in the region.
+     */
+    private int collectRegion(final PackedSchedule packedSchedule, final Scratch scratch, final int root,
+                              final boolean forward) {
+
+        final int[] stack = scratch.stack;
+        scratch.nextStamp();
+
+        int size = 0;
+        int top = 0;
+        stack[top++] = root;
+        scratch.mark(root);
+
+        while (top > 0) {
+
+            final int id = stack[--top];
+            scratch.region[size++] = id;
+
+            final int jobNeighbour = forward ? packedSchedule.getJobSuccessor(id)
+                    : packedSchedule.getJobPredecessor(id);
+            if (jobNeighbour != PackedSchedule.NONE && !scratch.isMarked(jobNeighbour)) {
+                scratch.mark(jobNeighbour);
+                stack[top++] = jobNeighbour;
+            }
+            final int machineNeighbour = forward ? packedSchedule.getMachineSuccessor(id)
+                    : packedSchedule.getMachinePredecessor(id);
+            if (machineNeighbour != PackedSchedule.NONE && !scratch.isMarked(machineNeighbour)) {
+                scratch.mark(machineNeighbour);
+                stack[top++] = machineNeighbour;
+            }
+        }
+
+        return size;
+    }
+
+    /**
+     * Calculates tail of an operation from the tails of its successors.
+     */
+    private int tail(final PackedSchedule packedSchedule, final int[] tails, final int id) {
+
+        int tail = 0;
+        final int jobSuccessor = packedSchedule.getJobSuccessor(id);
+        if (jobSuccessor != PackedSchedule.NONE) {
+            tail = tails[jobSuccessor] + packedSchedule.getProcessingTime(jobSuccessor);
+        }
+        final int machineSuccessor = packedSchedule.getMachineSuccessor(id);
+        if (machineSuccessor != PackedSchedule.NONE) {
+            tail = Math.max(tail, tails[machineSuccessor] + packedSchedule.getProcessingTime(machineSuccessor));
+        }
+        return tail;
+    }
+
+    /**
+     * Depth first search over job and machine successors for the target, skipping operations placed or finishing
+     * after the bounds as they cannot reach it.
+     */
+    private boolean reaches(final PackedSchedule packedSchedule, final Scratch scratch, final int source,
+                            final int target, final int positionBound, final int timeBound) {
+
+        final int[] stack = scratch.stack;
+
+        scratch.nextStamp();
+        scratch.mark(source);
+        stack[0] = source;
+        int size = 1;
+
+        while (size > 0) {
+
+            final int id = stack[--size];
+            final int jobSuccessor = packedSchedule.getJobSuccessor(id);
+            final int machineSuccessor = packedSchedule.getMachineSuccessor(id);
+
+            if (jobSuccessor == target || machineSuccessor == target) {
+                return true;
+            }
+            if (isUnvisited(packedSchedule, scratch, jobSuccessor, positionBound, timeBound)) {
+                scratch.mark(jobSuccessor);
+                stack[size++] = jobSuccessor;
+            }
+            if (isUnvisited(packedSchedule, scratch, machineSuccessor, positionBound, timeBound)) {
+                scratch.mark(machineSuccessor);
+                stack[size++] = machineSuccessor;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks an operation exists, is not yet visited and is placed and finishes within the bounds.
+     */
+    private boolean isUnvisited(final PackedSchedule packedSchedule, final Scratch scratch, final int id,
+                                final int positionBound, final int timeBound) {
+
+        return id != PackedSchedule.NONE && !scratch.isMarked(id)
+                && packedSchedule.getTopologicalPositions()[id] < positionBound
+                && packedSchedule.getCompletionTime(id) <= timeBound;
+    }
+
+    /**
+     * Per-thread scratch buffers, grown when a larger instance is evaluated.
+     */
+    private static final class Scratch {
+
+        /** Remaining unprocessed predecessors (or successors). */
+        private int[] indegree = new int[0];
+
+        /** Kahn queue, doubling as the topological order. */
+        private int[] order = new int[0];
+
+        /** Depth first search stack. */
+        private int[] stack = new int[0];
+
+        /** Operations of the region being updated. */
+        private int[] region = new int[0];
+
+        /** Heads of a virtual evaluation. */
+        private int[] heads = new int[0];
+
+        /** Operations reachable from the second of a swapped pair while repairing the topological order. */
+        private int[] forward = new int[0];
+
+        /** Operations reaching the first of a swapped pair while repairing the topological order. */
+        private int[] backward = new int[0];
+
+        /** Region membership, an operation is marked when it holds the current stamp. */
+        private int[] marks = new int[0];
+
+        /** Current stamp. */
+        private int stamp;
+
+        /**
+         * Grows buffers to hold the given number of operations.
+         *
+         * @param numOperations
+         *         Number of operations.
+         * @return this
+         */
+        private Scratch ensureCapacity(final int numOperations) {
+
+            if (indegree.length < numOperations) {
+                indegree = new int[numOperations];
+                order = new int[numOperations];
+                stack = new int[numOperations];
+                region = new int[numOperations];
+                heads = new int[numOperations];
+                forward = new int[numOperations];
+                backward = new int[numOperations];
+                marks = new int[numOperations];
+                stamp = 0;
+            }
+            return this;
+        }
+
+        /**
+         * Starts a new region, implicitly clearing all marks.
+         */
+        private void nextStamp() {
+
+            if (++stamp == Integer.MAX_VALUE) {
+                Arrays.fill(marks, 0);
+                stamp = 1;
+            }
+        }
+
+        private void mark(final int id) {
+            marks[id] = stamp;
+        }
+
+        private boolean isMarked(final int id) {
+            return marks[id] == stamp;
+        }
+    }
+}
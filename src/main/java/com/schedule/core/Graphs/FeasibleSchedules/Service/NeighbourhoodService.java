@@ -0,0 +1,228 @@
+package com.schedule.core.Graphs.FeasibleSchedules.Service;
+
+import com.schedule.core.Graphs.FeasibleSchedules.Model.Core.Edge;
+import com.schedule.core.Graphs.FeasibleSchedules.Model.Core.Operation;
+import com.schedule.core.Graphs.FeasibleSchedules.Model.Core.Schedule;
+import com.schedule.core.Graphs.FeasibleSchedules.Model.Other.Neighbourhood;
+import com.schedule.core.Graphs.FeasibleSchedules.Wrapper.CriticalPath;
+import com.schedule.core.Graphs.FeasibleSchedules.Wrapper.MoveJournal;
+import com.schedule.core.Graphs.FeasibleSchedules.Wrapper.NeighbourMove;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+
+/**
+ * Generates and evaluates moves of the N5/N6 critical block neighbourhoods. Only moves at the ends of critical blocks
+ * can shorten the critical path, so every other machine edge is skipped.
+ */
+public class NeighbourhoodService {
+
+    /** Logger. */
+    private static final Logger LOG = LoggerFactory.getLogger(NeighbourhoodService.class);
+
+    /** Journal reused by every move evaluated on the same thread. */
+    private static final ThreadLocal<MoveJournal> MOVE_JOURNAL = ThreadLocal.withInitial(MoveJournal::new);
+
+    /** {@link ScheduleService}. */
+    private final ScheduleService scheduleService;
+
+    /**
+     * Constructor.
+     *
+     * @param scheduleService
+     *         {@link ScheduleService}
+     */
+    public NeighbourhoodService(final ScheduleService scheduleService) {
+        this.scheduleService = scheduleService;
+    }
+
+    /**
+     * Generates moves of the neighbourhood from the critical blocks of a single critical path.
+     *
+     * @param schedule
+     *         Feasible {@link Schedule}
+     * @param neighbourhood
+     *         {@link Neighbourhood#N5} or {@link Neighbourhood#N6}
+     * @return Moves, empty if no move can improve the makespan.
+     */
+    public List<NeighbourMove> generateMoves(final Schedule schedule, final Neighbourhood neighbourhood) {
+
+        if (neighbourhood == Neighbourhood.MOST_VISITED_EDGE) {
+            throw new IllegalArgumentException("Not a critical block neighbourhood: " + neighbourhood);
+        }
+
+        if (schedule.getMakespan() == Integer.MAX_VALUE) {
+
+            LOG.trace("Schedule contains cycle, no critical blocks");
+            return new ArrayList<>();
+        }
+
+        final CriticalPath criticalPath = scheduleService.calculateCriticalPath(schedule);
+        final int[] path = criticalPath.getOperations();
+
+        final Set<NeighbourMove> moves = new LinkedHashSet<>();
+        for (final int[] block : criticalPath.getBlocks()) {
+
+            final boolean firstBlock = block[0] == path[0];
+            final boolean lastBlock = block[block.length - 1] == path[path.length - 1];
+            final int last = block.length - 1;
+
+            if (neighbourhood == Neighbourhood.N5) {
+
+                if (!firstBlock) {
+                    moves.add(new NeighbourMove(schedule.getOperation(block[1]), -1));
+                }
+                if (!lastBlock) {
+                    moves.add(new NeighbourMove(schedule.getOperation(block[last]), -1));
+                }
+                continue;
+            }
+
+            for (int index = 0; index < block.length; index++) {
+
+                if (!firstBlock && index > 0) {
+                    moves.add(new NeighbourMove(schedule.getOperation(block[index]), -index));
+                }
+                if (!lastBlock && index < last) {
+
+                    // Moving an operation just before the last is the same swap as moving the last forward
+                    if (index == last - 1) {
+                        moves.add(new NeighbourMove(schedule.getOperation(block[last]), -1));
+                    } else {
+                        moves.add(new NeighbourMove(schedule.getOperation(block[index]), last - index));
+                    }
+                }
+            }
+        }
+
+        LOG.trace("Generated {} {} moves from {}", moves.size(), neighbourhood, criticalPath);
+
+        return new ArrayList<>(moves);
+    }
+
+    /**
+     * Calculates the makespan a move would give. Adjacent swaps are scored without touching the schedule, longer
+     * moves are applied with incremental timing and rolled back from a {@link MoveJournal}.
+     *
+     * @param schedule
+     *         {@link Schedule}
+     * @param move
+     *         {@link NeighbourMove}
+     * @return Makespan, or {@link Integer#MAX_VALUE} if the move would create a cycle.
+     */
+    public int evaluateMove(final Schedule schedule, final NeighbourMove move) {
+
+        final int makespan;
+        if (move.getShift() == -1) {
+            makespan = scheduleService.evaluateMakespanAfterSwitch(schedule,
+                                                                   move.getOperation().getDisjunctiveParent());
+        } else if (move.getShift() == 1) {
+            makespan = scheduleService.evaluateMakespanAfterSwitch(schedule,
+                                                                   move.getOperation().getDisjunctiveEdge());
+        } else {
+
+            final MoveJournal moveJournal = MOVE_JOURNAL.get();
+            moveJournal.begin(schedule);
+            for (int step = 0; step < Math.abs(move.getShift()); step++) {
+                scheduleService.switchEdge(schedule, nextEdge(move), moveJournal);
+            }
+            makespan = timedMakespan(schedule);
+            scheduleService.rollback(schedule, moveJournal);
+        }
+
+        move.setMakespan(makespan);
+
+        return makespan;
+    }
+
+    /**
+     * Applies a move through adjacent edge switches. Longest paths are left for the caller to recalculate.
+     *
+     * @param schedule
+     *         {@link Schedule}
+     * @param move
+     *         {@link NeighbourMove}
+     */
+    public void applyMove(final Schedule schedule, final NeighbourMove move) {
+
+        for (int step = 0; step < Math.abs(move.getShift()); step++) {
+            scheduleService.switchEdge(schedule, nextEdge(move));
+        }
+        timedMakespan(schedule);
+    }
+
+    /**
+     * Gets machine edge switched by the next step of a move.
+     *
+     * @param move
+     *         {@link NeighbourMove}
+     * @return {@link Edge}
+     */
+    private Edge nextEdge(final NeighbourMove move) {
+
+        final Operation operation = move.getOperation();
+        return move.getShift() < 0 ? operation.getDisjunctiveParent() : operation.getDisjunctiveEdge();
+    }
+
+    /**
+     * Gets makespan after a move, recalculating it in full if incremental timing was lost.
+     *
+     * @param schedule
+     *         {@link Schedule}
+     * @return Makespan.
+     */
+    private int timedMakespan(final Schedule schedule) {
+
+        // A swap part way through may have closed a cycle the full move opens again
+        if (!schedule.getPackedSchedule().isTimed()) {
+            scheduleService.calculateMakeSpan(schedule);
+        }
+        return schedule.getMakespan();
+    }
+
+    /**
+     * Finds the move of the neighbourhood giving the lowest makespan.
+     *
+     * @param schedule
+     *         Feasible {@link Schedule}
+     * @param neighbourhood
+     *         {@link Neighbourhood#N5} or {@link Neighbourhood#N6}
+     * @return Best move with its makespan set, empty if the neighbourhood is empty.
+     */
+    public Optional<NeighbourMove> findBestMove(final Schedule schedule, final Neighbourhood neighbourhood) {
+
+        NeighbourMove bestMove = null;
+        for (final NeighbourMove move : generateMoves(schedule, neighbourhood)) {
+
+            evaluateMove(schedule, move);
+            if (bestMove == null || move.getMakespan() < bestMove.getMakespan()) {
+                bestMove = move;
+            }
+        }
+
+        return Optional.ofNullable(bestMove);
+    }
+
+    /**
+     * Picks a random move of the neighbourhood and evaluates it.
+     *
+     * @param schedule
+     *         Feasible {@link Schedule}
+     * @param neighbourhood
+     *         {@link Neighbourhood#N5} or {@link Neighbourhood#N6}
+     * @return Move with its makespan set, empty if the neighbourhood is empty.
+     */
+    public Optional<NeighbourMove> findRandomMove(final Schedule schedule, final Neighbourhood neighbourhood) {
+
+        final List<NeighbourMove> moves = generateMoves(schedule, neighbourhood);
+        if (moves.isEmpty()) {
+            return Optional.empty();
+        }
+
+        final NeighbourMove move = moves.get((int) (scheduleService.randomDouble() * moves.size()));
+        evaluateMove(schedule, move);
+
+        return Optional.of(move);
+    }
+}
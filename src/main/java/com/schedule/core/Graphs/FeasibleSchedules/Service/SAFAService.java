@@ -3,14 +3,18 @@ package com.schedule.core.Graphs.FeasibleSchedules.Service;
 import com.schedule.core.Graphs.FeasibleSchedules.Model.Core.Edge;
 import com.schedule.core.Graphs.FeasibleSchedules.Patterns.OptimalSchedule;
 import com.schedule.core.Graphs.FeasibleSchedules.Model.Core.Schedule;
+import com.schedule.core.Graphs.FeasibleSchedules.Model.Other.Neighbourhood;
 import com.schedule.core.Graphs.FeasibleSchedules.Threads.SAFACallable;
 import com.schedule.core.Graphs.FeasibleSchedules.Patterns.Observer;
-import com.schedule.core.Graphs.FeasibleSchedules.Threads.ShutDownThreadsCallable;
+import com.schedule.core.Graphs.FeasibleSchedules.Threads.SolverRuntime;
+import com.schedule.core.Graphs.FeasibleSchedules.Wrapper.NeighbourMove;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class SAFAService implements Observer {
 
@@ -20,6 +24,12 @@ public class SAFAService implements Observer {
     /** {@link ScheduleService}. */
     private ScheduleService scheduleService = new ScheduleService();
 
+    /** {@link NeighbourhoodService}. */
+    private NeighbourhoodService neighbourhoodService = new NeighbourhoodService(scheduleService);
+
+    /** Neighbourhood random moves are drawn from. */
+    private Neighbourhood neighbourhood = Neighbourhood.MOST_VISITED_EDGE;
+
     /** {@link FireflyService}. */
     private FireflyService fireflyService;
 
@@ -29,9 +39,40 @@ public class SAFAService implements Observer {
     /** {@link Schedule}. */
     private OptimalSchedule optimalSchedule;
 
-    private ExecutorService executorService;
+    /** {@link SolverRuntime} SAFA threads run on. */
+    private final SolverRuntime solverRuntime;
 
-    private List<Future<Schedule>> allRunningThreads;
+    /** Whether new SAFA threads are refused. */
+    private volatile boolean shutDown;
+
+    /**
+     * SAFA threads still running, with a party for the caller of {@link #executeSimulatedAnnealingFirefly} until it
+     * has submitted them all. Terminates the moment the last one deregisters.
+     */
+    private final Phaser runningThreads = new Phaser(1) {
+
+        @Override
+        protected boolean onAdvance(final int phase, final int registeredParties) {
+
+            if (registeredParties == 0) {
+                completeSimulatedAnnealingFirefly();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    /** Whether the caller's party of {@link #runningThreads} was deregistered. */
+    private final AtomicBoolean allThreadsSubmitted = new AtomicBoolean();
+
+    /** Completes with the optimal schedule once every SAFA thread finished. */
+    private final CompletableFuture<Schedule> completion = new CompletableFuture<>();
+
+    /** Maximum restarts from replaced optimals queued or running at once, the runtime parallelism by default. */
+    private int maxRestartsInFlight;
+
+    /** Restarts from replaced optimals queued or running. */
+    private final AtomicInteger restartsInFlight = new AtomicInteger();
 
     /**
      * Constructor.
@@ -41,43 +82,54 @@ public class SAFAService implements Observer {
      */
     public SAFAService(final FireflyService fireflyService, final SimulatedAnnealingService simulatedAnnealingService,
                        final OptimalSchedule optimalSchedule) {
+        this(fireflyService, simulatedAnnealingService, optimalSchedule, SolverRuntime.getShared());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param fireflyService
+     *         {@link FireflyService}
+     * @param simulatedAnnealingService
+     *         {@link SimulatedAnnealingService}
+     * @param optimalSchedule
+     *         {@link OptimalSchedule}
+     * @param solverRuntime
+     *         {@link SolverRuntime} SAFA threads run on.
+     */
+    public SAFAService(final FireflyService fireflyService, final SimulatedAnnealingService simulatedAnnealingService,
+                       final OptimalSchedule optimalSchedule, final SolverRuntime solverRuntime) {
         this.fireflyService = fireflyService;
         this.simulatedAnnealingService = simulatedAnnealingService;
         this.optimalSchedule = optimalSchedule;
+        this.solverRuntime = solverRuntime;
 
-        executorService = Executors.newFixedThreadPool(5);
-        allRunningThreads = new ArrayList<>();
+        maxRestartsInFlight = solverRuntime.getParallelism();
     }
 
     /**
-     * Executes SA using random population of schedules.
+     * Executes SA using random population of schedules, without waiting for it to finish.
      *
      * @param scheduleSet
      *         Set of {@link Schedule}
+     * @return {@link CompletableFuture} completing with the optimal {@link Schedule} the moment the last SAFA thread,
+     * restarts included, finishes.
      */
-    public void executeSimulatedAnnealingFirefly(final Set<Schedule> scheduleSet) {
-
-        // Build threads
-        final List<Callable<Schedule>> callables = new ArrayList<>();
+    public CompletableFuture<Schedule> executeSimulatedAnnealingFirefly(final Set<Schedule> scheduleSet) {
 
         scheduleSet.remove(optimalSchedule.getOptimalSchedule());
 
         // Runs SA/FA for all other schedules
         for (final Schedule schedule : scheduleSet) {
-
-            final SAFACallable safaCallable = new SAFACallable(this, schedule);
-            callables.add(safaCallable);
+            addSimulatedAnnealingFireflyThread(schedule);
         }
 
-        try {
-            allRunningThreads.addAll(executorService.invokeAll(callables));
-        } catch (InterruptedException e) {
-            e.printStackTrace();
+        // All threads submitted, the last one to finish now completes SAFA
+        if (allThreadsSubmitted.compareAndSet(false, true)) {
+            runningThreads.arriveAndDeregister();
         }
 
-        //Adds shutdown thread to handle ending threads
-        final ShutDownThreadsCallable shutDownThreadsCallable = new ShutDownThreadsCallable(this);
-        executorService.submit(shutDownThreadsCallable);
+        return completion;
     }
 
     /**
@@ -87,12 +139,131 @@ public class SAFAService implements Observer {
      *         {@link Schedule}
      */
     public synchronized void addSimulatedAnnealingFireflyThread(final Schedule schedule) {
+        submitThread(new SAFACallable(this, schedule));
+    }
+
+    /**
+     * Submits SAFA thread tracked until it finishes, unless SAFA was shut down or already completed.
+     *
+     * @param thread
+     *         {@link Callable} running SAFA.
+     * @return true if the thread was submitted.
+     */
+    private boolean submitThread(final Callable<Schedule> thread) {
+
+        if (shutDown || runningThreads.register() < 0) {
+            LOG.debug("SAFA shut down, not starting new thread");
+            return false;
+        }
+
+        try {
+            solverRuntime.submit(() -> {
+                try {
+                    return thread.call();
+                } catch (final Exception e) {
+
+                    LOG.error("SAFA thread failed", e);
+                    throw e;
+                } finally {
+                    runningThreads.arriveAndDeregister();
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+
+            LOG.debug("Solver runtime shut down, not starting new thread");
+            runningThreads.arriveAndDeregister();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Stops SAFA once its last thread finished and completes it with the optimal schedule.
+     */
+    private void completeSimulatedAnnealingFirefly() {
+
+        shutDownExecutors();
+
+        LOG.debug("Shutdown services.");
+
+        completion.complete(getOptimal());
+    }
+
+    /**
+     * Gets completion of SAFA.
+     *
+     * @return {@link CompletableFuture} completing with the optimal {@link Schedule} once every SAFA thread finished.
+     */
+    public CompletableFuture<Schedule> getCompletion() {
+        return completion;
+    }
+
+    /**
+     * Adds new SAFA thread restarting from a replaced optimal, unless the restart limit is reached or SAFA was shut
+     * down.
+     *
+     * @param schedule
+     *         {@link Schedule}
+     * @return false if the restart limit dropped the restart.
+     */
+    private synchronized boolean addRestartThread(final Schedule schedule) {
+
+        if (shutDown) {
+            LOG.debug("SAFA shut down, not restarting");
+            return true;
+        }
+
+        if (restartsInFlight.incrementAndGet() > maxRestartsInFlight) {
+
+            restartsInFlight.decrementAndGet();
+            return false;
+        }
 
         final SAFACallable safaCallable = new SAFACallable(this, schedule);
+        final boolean submitted = submitThread(() -> {
+            try {
+                return safaCallable.call();
+            } finally {
+                restartsInFlight.decrementAndGet();
+            }
+        });
+        if (!submitted) {
+            restartsInFlight.decrementAndGet();
+        }
+        return true;
+    }
+
+    /**
+     * Gets maximum restarts from replaced optimals queued or running at once.
+     *
+     * @return Restart limit.
+     */
+    public int getMaxRestartsInFlight() {
+        return maxRestartsInFlight;
+    }
 
-        final Future<Schedule> future = executorService.submit(safaCallable);
+    /**
+     * Sets maximum restarts from replaced optimals queued or running at once, further improvements are dropped until
+     * a restart finishes.
+     *
+     * @param maxRestartsInFlight
+     *         Restart limit.
+     */
+    public void setMaxRestartsInFlight(final int maxRestartsInFlight) {
+
+        if (maxRestartsInFlight < 0) {
+            throw new IllegalArgumentException("Restart limit must not be negative: " + maxRestartsInFlight);
+        }
+        this.maxRestartsInFlight = maxRestartsInFlight;
+    }
 
-        allRunningThreads.add(future);
+    /**
+     * Gets restarts from replaced optimals queued or running.
+     *
+     * @return Restarts in flight.
+     */
+    public int getRestartsInFlight() {
+        return restartsInFlight.get();
     }
 
     /**
@@ -131,7 +302,7 @@ public class SAFAService implements Observer {
                 if (!successMove) {
 
                     LOG.debug("No more move options, check if equal to optimal: {}",
-                              currentSchedule.hashCode() == optimalSchedule.getOptimalSchedule().hashCode());
+                              currentSchedule.getFingerprint() == optimalSchedule.getSnapshot().getFingerprint());
 
                     break;
                 }
@@ -140,19 +311,13 @@ public class SAFAService implements Observer {
 
                 LOG.trace("Making random move");
 
-                final Optional<Edge> result = scheduleService.flipMostVisitedEdgeLongestPath(currentSchedule,
-                                                                                             currentSchedule
-                                                                                                     .getLongestPathArray(), true);
-
-                LOG.trace("Result: {}", result);
-                scheduleService.calculateScheduleData(currentSchedule);
+                makeRandomMove(currentSchedule, true);
             }
 
-            if (currentSchedule.getMakespan() < this.optimalSchedule.getOptimalSchedule().getMakespan()) {
-
-                LOG.trace("Setting new optimal");
+            if (currentSchedule.getMakespan() < optimalSchedule.getSnapshot().getMakespan()
+                    && optimalSchedule.offerIfBetter(currentSchedule)) {
 
-                optimalSchedule.setOptimalSchedule(currentSchedule);
+                LOG.trace("Set new optimal");
                 break;
             }
 
@@ -163,47 +328,64 @@ public class SAFAService implements Observer {
         LOG.debug("Finished SAFA execution after {} iterations", iterations);
     }
 
-    public Schedule getOptimal() {
-        return optimalSchedule.getOptimalSchedule();
-    }
-
     /**
-     * Shuts down executor service when all threads complete.
+     * Makes a random move from the configured neighbourhood and recalculates schedule data.
+     *
+     * @param schedule
+     *         {@link Schedule}
+     * @param useTabuList
+     *         Determines whether or not to use a tabu list for most visited edge moves.
      */
-    public boolean removeCompletedThreads() {
-
-        LOG.debug("Removing completed threads from cache, size: {}", allRunningThreads.size());
+    private void makeRandomMove(final Schedule schedule, final boolean useTabuList) {
 
-        if (!allRunningThreads.isEmpty()) {
+        if (neighbourhood == Neighbourhood.MOST_VISITED_EDGE) {
 
-            Iterator<Future<Schedule>> threadIterator = allRunningThreads.iterator();
-            while (threadIterator.hasNext()) {
+            final Optional<Edge> result = scheduleService.flipMostVisitedEdgeLongestPath(schedule, schedule
+                    .getLongestPathArray(), useTabuList);
 
-                final Future<Schedule> currentThread = threadIterator.next();
+            LOG.trace("Result: {}", result);
+        } else {
 
-                try {
-                    currentThread.get();
-
-                    if (currentThread.isDone()) {
-                        threadIterator.remove();
-                    }
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                } catch (ExecutionException e) {
-                    e.printStackTrace();
-                }
+            final Optional<NeighbourMove> move = neighbourhoodService.findRandomMove(schedule, neighbourhood);
+            if (move.isPresent() && move.get().getMakespan() != Integer.MAX_VALUE) {
+                neighbourhoodService.applyMove(schedule, move.get());
             }
+
+            LOG.trace("Result: {}", move);
         }
 
-        return allRunningThreads.isEmpty();
+        scheduleService.updateScheduleData(schedule);
+    }
+
+    /**
+     * Gets Neighbourhood random moves are drawn from.
+     *
+     * @return Value of Neighbourhood random moves are drawn from.
+     */
+    public Neighbourhood getNeighbourhood() {
+        return neighbourhood;
+    }
+
+    /**
+     * Sets new Neighbourhood random moves are drawn from.
+     *
+     * @param neighbourhood
+     *         New value of Neighbourhood random moves are drawn from.
+     */
+    public void setNeighbourhood(final Neighbourhood neighbourhood) {
+        this.neighbourhood = neighbourhood;
+    }
+
+    public Schedule getOptimal() {
+        return optimalSchedule.getOptimalSchedule();
     }
 
     /**
-     * Shuts down executors.
+     * Refuses new SAFA and SA threads, the shared {@link SolverRuntime} is left running for its owner to close.
      */
     public void shutDownExecutors() {
 
-        executorService.shutdown();
+        shutDown = true;
         simulatedAnnealingService.shutdownExecutorService();
     }
 
@@ -249,31 +431,26 @@ public class SAFAService implements Observer {
                     if (!successMove) {
 
                         LOG.debug("No more move options, check if equal to optimal: {}",
-                                  schedule.hashCode() == optimalSchedule.getOptimalSchedule().hashCode());
+                                  schedule.getFingerprint() == optimalSchedule.getSnapshot().getFingerprint());
 
-                        if (schedule.hashCode() == optimalSchedule.getOptimalSchedule().hashCode()) {
+                        if (schedule.getFingerprint() == optimalSchedule.getSnapshot().getFingerprint()) {
                             scheduleIterator.remove();
                         }else{
                             LOG.trace("Making random move");
-                            scheduleService.flipMostVisitedEdgeLongestPath(schedule, schedule
-                                    .getLongestPathArray(), false);
-                            scheduleService.calculateScheduleData(schedule);
+                            makeRandomMove(schedule, false);
                         }
                     }
 
                 } else {
 
                     LOG.trace("Making random move");
-                    scheduleService.flipMostVisitedEdgeLongestPath(schedule, schedule
-                            .getLongestPathArray(), false);
-                    scheduleService.calculateScheduleData(schedule);
+                    makeRandomMove(schedule, false);
                 }
 
-                if (schedule.getMakespan() < this.optimalSchedule.getOptimalSchedule().getMakespan()) {
-
-                    LOG.trace("Setting new optimal");
+                if (schedule.getMakespan() < optimalSchedule.getSnapshot().getMakespan()
+                        && optimalSchedule.offerIfBetter(schedule)) {
 
-                    optimalSchedule.setOptimalSchedule(schedule);
+                    LOG.trace("Set new optimal");
                 }
             }
 
@@ -292,8 +469,9 @@ public class SAFAService implements Observer {
 
         LOG.debug("Updated max, starting new SAFA thread");
 
-        if (schedule != null) {
-            addSimulatedAnnealingFireflyThread(schedule);
+        // Old optimal may still be read by other threads, search from a fork of it
+        if (schedule != null && !addRestartThread(schedule.fork())) {
+            LOG.debug("Restart limit of {} reached, dropping restart", maxRestartsInFlight);
         }
     }
 }
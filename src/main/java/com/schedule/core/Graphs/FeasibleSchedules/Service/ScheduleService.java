@@ -4,7 +4,11 @@ import com.schedule.core.Graphs.FeasibleSchedules.Config.FileDataPaths;
 import com.schedule.core.Graphs.FeasibleSchedules.Model.Core.Edge;
 import com.schedule.core.Graphs.FeasibleSchedules.Model.Core.EndVertex;
 import com.schedule.core.Graphs.FeasibleSchedules.Model.Core.Operation;
+import com.schedule.core.Graphs.FeasibleSchedules.Model.Core.PackedSchedule;
 import com.schedule.core.Graphs.FeasibleSchedules.Model.Core.Schedule;
+import com.schedule.core.Graphs.FeasibleSchedules.Model.Other.SolverRandom;
+import com.schedule.core.Graphs.FeasibleSchedules.Wrapper.CriticalPath;
+import com.schedule.core.Graphs.FeasibleSchedules.Wrapper.MoveJournal;
 import com.schedule.core.Graphs.FeasibleSchedules.Wrapper.SchedulePaths;
 import guru.nidi.graphviz.engine.Format;
 import guru.nidi.graphviz.engine.Graphviz;
@@ -27,6 +31,15 @@ public class ScheduleService {
     /** Logger. */
     private static final Logger LOG = LoggerFactory.getLogger(ScheduleService.class);
 
+    /** Path limit enumerating every longest path. */
+    public static final int ALL_LONGEST_PATHS = Integer.MAX_VALUE;
+
+    /** {@link MakespanService}. */
+    private final MakespanService makespanService = new MakespanService();
+
+    /** Maximum number of longest paths enumerated, 1 stores a single critical path found in one backward pass. */
+    private int maxLongestPaths = ALL_LONGEST_PATHS;
+
     /**
      * COnstructor.
      */
@@ -34,15 +47,90 @@ public class ScheduleService {
     }
 
     /**
-     * Triggers on change calculation of Schedule makespan/longest paths.
+     * Triggers on change calculation of Schedule makespan, longest paths are calculated when first asked for. Reads
+     * the graph into the packed mirror first, so it follows building a schedule or editing its graph directly.
      *
      * @param schedule
      *         {@link Schedule}
      */
-    public SchedulePaths calculateScheduleData(final Schedule schedule) {
+    public void calculateScheduleData(final Schedule schedule) {
 
+        schedule.syncPackedSchedule();
         calculateMakeSpan(schedule);
-        return calculatePaths(schedule);
+        schedule.invalidateLongestPaths(this);
+    }
+
+    /**
+     * Reuses heads and makespan kept up to date by {@link #switchEdge(Schedule, Edge)}, only recalculating them in
+     * full when they are stale. Longest paths are calculated when first asked for.
+     *
+     * @param schedule
+     *         {@link Schedule}
+     */
+    public void updateScheduleData(final Schedule schedule) {
+
+        if (!schedule.getPackedSchedule().isTimed()) {
+            calculateMakeSpan(schedule);
+        }
+        schedule.invalidateLongestPaths(this);
+    }
+
+    /**
+     * Estimates makespan after switching a machine edge in constant time from heads and tails, without modifying the
+     * schedule. Exact for paths through the edge, a lower bound otherwise.
+     *
+     * @param schedule
+     *         {@link Schedule} owning the edge.
+     * @param edge
+     *         Machine {@link Edge}
+     * @return Estimated makespan.
+     */
+    public int estimateMakespanAfterSwitch(final Schedule schedule, final Edge edge) {
+
+        return makespanService.estimateSwap(timedPackedSchedule(schedule), edge.getOperationFrom().getId(),
+                                            edge.getOperationTo().getId());
+    }
+
+    /**
+     * Calculates the exact makespan after switching a machine edge, without modifying the schedule.
+     *
+     * @param schedule
+     *         {@link Schedule} owning the edge.
+     * @param edge
+     *         Machine {@link Edge}
+     * @return Makespan, or {@link Integer#MAX_VALUE} if the switch would create a cycle.
+     */
+    public int evaluateMakespanAfterSwitch(final Schedule schedule, final Edge edge) {
+
+        return makespanService.evaluateSwap(timedPackedSchedule(schedule), edge.getOperationFrom().getId(),
+                                            edge.getOperationTo().getId());
+    }
+
+    /**
+     * Checks whether switching a machine edge keeps the schedule acyclic, without modifying it. Decided from heads
+     * in constant time for most edges, with a bounded search otherwise.
+     *
+     * @param schedule
+     *         {@link Schedule} owning the edge.
+     * @param edge
+     *         Machine {@link Edge}
+     * @return true if the switch keeps the schedule feasible.
+     */
+    public boolean isSwitchFeasible(final Schedule schedule, final Edge edge) {
+
+        return makespanService.isSwapFeasible(timedPackedSchedule(schedule), edge.getOperationFrom().getId(),
+                                              edge.getOperationTo().getId());
+    }
+
+    /**
+     * Gets packed mirror of the schedule, calculating heads and tails first if they are stale.
+     */
+    private PackedSchedule timedPackedSchedule(final Schedule schedule) {
+
+        if (!schedule.getPackedSchedule().isTimed()) {
+            calculateMakeSpan(schedule);
+        }
+        return schedule.getPackedSchedule();
     }
 
     /**
@@ -62,7 +150,7 @@ public class ScheduleService {
 
         final Optional<Edge> maxEdge = getMostVisitedEdgeLongestPath(schedule, longestPathEdges, useTabuList);
 
-        maxEdge.ifPresent(this::switchEdge);
+        maxEdge.ifPresent(edge -> switchEdge(schedule, edge));
 
         return maxEdge;
     }
@@ -121,29 +209,117 @@ public class ScheduleService {
 
         LOG.trace("All edges size: {}", allEdges.size());
 
-        final Edge maxVal = allEdges.stream()
+        Edge maxVal = mostFrequentEdge(allEdges);
+
+        //Discards edges between machines until the most visited is a machine edge
+        while (maxVal != null && maxVal.getOperationFrom() != null
+                && maxVal.getOperationFrom().getMachine() != maxVal.getOperationTo().getMachine()) {
+
+            LOG.trace("Max edge not machine edge: {}", maxVal);
+
+            allEdges.removeAll(Collections.singleton(maxVal));
+            maxVal = mostFrequentEdge(allEdges);
+        }
+        LOG.trace("Found max Edge: {}", maxVal);
+
+        return Optional.ofNullable(maxVal);
+    }
+
+    /**
+     * Returns edge occurring most often in list.
+     *
+     * @param allEdges
+     *         List of edges.
+     * @return {@link Edge}, null if list is empty.
+     */
+    private Edge mostFrequentEdge(final List<Edge> allEdges) {
+
+        return allEdges.stream()
                 .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()))
                 .entrySet().stream().max(Comparator.comparing(Map.Entry::getValue))
                 .map(Map.Entry::getKey).orElse(null);
+    }
 
-        if (maxVal != null) {
-            if (maxVal.getOperationFrom() != null) {
-                if (maxVal.getOperationFrom().getMachine() != maxVal.getOperationTo().getMachine()) {
+    /**
+     * Switches edges on machine path, keeping the packed mirror of the schedule in step. A maintained topological
+     * order is repaired around the swapped pair, detecting a cycle. When heads and tails are current they are updated
+     * only around the swapped pair and the new makespan is set on the schedule.
+     *
+     * @param schedule
+     *         {@link Schedule} owning the edge.
+     * @param edge
+     *         {@link Edge}
+     */
+    public void switchEdge(final Schedule schedule, final Edge edge) {
 
-                    LOG.trace("Max edge not machine edge: {}", maxVal);
+        schedule.checkWritable();
+        final PackedSchedule packedSchedule = schedule.getPackedSchedule();
+        final int from = edge.getOperationFrom().getId();
+        final int to = edge.getOperationTo().getId();
 
-                    allEdges.removeAll(Collections.singleton(maxVal));
-                    return findMostVisitedEdge(allEdges);
-                }
-            }
+        switchEdge(edge);
+        packedSchedule.swapMachineOperations(from, to);
+        schedule.invalidateLongestPaths(this);
+
+        if (packedSchedule.isOrdered() && !makespanService.repairOrder(packedSchedule, to, from)) {
+            schedule.setMakespan(Integer.MAX_VALUE);
+        } else if (packedSchedule.isTimed()) {
+            schedule.setMakespan(makespanService.updateAfterSwap(packedSchedule, to, from));
         }
-        LOG.trace("Found max Edge: {}", maxVal);
+    }
 
-        return Optional.ofNullable(maxVal);
+    /**
+     * Switches edges on machine path as {@link #switchEdge(Schedule, Edge)}, recording the edge so the move can be
+     * rolled back.
+     *
+     * @param schedule
+     *         {@link Schedule} owning the edge.
+     * @param edge
+     *         {@link Edge}
+     * @param moveJournal
+     *         {@link MoveJournal} begun on the schedule.
+     */
+    public void switchEdge(final Schedule schedule, final Edge edge, final MoveJournal moveJournal) {
+
+        switchEdge(schedule, edge);
+        moveJournal.record(edge);
+    }
+
+    /**
+     * Rolls back the edges recorded in the journal and restores makespan, heads, tails and longest paths from
+     * before the move without recalculating them.
+     *
+     * @param schedule
+     *         {@link Schedule}
+     * @param moveJournal
+     *         {@link MoveJournal} begun on the schedule.
+     */
+    public void rollback(final Schedule schedule, final MoveJournal moveJournal) {
+
+        final PackedSchedule packedSchedule = schedule.getPackedSchedule();
+        final List<Edge> switchedEdges = moveJournal.getSwitchedEdges();
+
+        LOG.trace("Rolling back {} switched edges", switchedEdges.size());
+
+        for (int index = switchedEdges.size() - 1; index >= 0; index--) {
+
+            final Edge edge = switchedEdges.get(index);
+            final int from = edge.getOperationFrom().getId();
+            final int to = edge.getOperationTo().getId();
+
+            switchEdge(edge);
+            packedSchedule.swapMachineOperations(from, to);
+        }
+
+        moveJournal.restore(schedule);
+        if (!moveJournal.isLongestPathsCurrent()) {
+            schedule.invalidateLongestPaths(this);
+        }
     }
 
     /**
-     * Switches edges on machine path.
+     * Switches edges on machine path. Leaves the packed mirror untouched, follow with
+     * {@link #calculateScheduleData(Schedule)}.
      *
      * @param edge
      *         {@link Edge}
@@ -183,7 +359,7 @@ public class ScheduleService {
     }
 
     /**
-     * Topologically sorts graph.
+     * Topologically sorts graph, reading the order maintained on the packed mirror when the graph is acyclic.
      *
      * @return Topologically sorted queue.
      */
@@ -192,6 +368,17 @@ public class ScheduleService {
         //Holds topologically sorted vertices
         final Deque<Operation> stack = new ArrayDeque<>();
 
+        final PackedSchedule packedSchedule = timedPackedSchedule(schedule);
+        if (packedSchedule.isOrdered()) {
+
+            for (final int id : packedSchedule.getTopologicalOrder()) {
+                stack.offerLast(schedule.getOperation(id));
+            }
+            stack.offerLast(schedule.getEndVertex());
+
+            return stack;
+        }
+
         //Visited vertices
         final Set<Operation> visited = new HashSet<>();
         for (final Operation operation : schedule.getAllVertices()) {
@@ -205,7 +392,8 @@ public class ScheduleService {
     }
 
     /**
-     * Returns a topologically sorted stack given parent operation.
+     * Depth first search from given operation, offering each operation to the front of the stack once all of its
+     * children have been offered. Runs on an explicit stack so large instances do not overflow the thread stack.
      *
      * @param operation
      *         Operation
@@ -217,29 +405,49 @@ public class ScheduleService {
     private void topologicalSort(final Operation operation, final Deque<Operation> stack, final Set<Operation>
             visited) {
 
-        LOG.trace("Topologically sorting operation: {} with stack: {} and visited: {}", operation, stack, visited);
+        LOG.trace("Topologically sorting from operation: {}", operation);
+
+        //Operations being searched with the next active edge slot of each
+        final Deque<Operation> searchPath = new ArrayDeque<>();
+        final Deque<Integer> nextSlots = new ArrayDeque<>();
 
         visited.add(operation);
+        searchPath.push(operation);
+        nextSlots.push(0);
 
-        //DFS active edges & add to stack
-        if (operation.hasActiveEdges()) {
+        while (!searchPath.isEmpty()) {
 
-            for (final Edge activeEdge : operation.getActiveEdges()) {
+            final Operation current = searchPath.peek();
+            int slot = nextSlots.pop();
 
-                final Operation childOperation = activeEdge.getOperationTo();
-                if (visited.contains(childOperation)) {
-                    continue;
+            //Advances to next unvisited child
+            Operation childOperation = null;
+            while (childOperation == null && slot < current.getActiveEdgeSlots()) {
+
+                final Edge activeEdge = current.getActiveEdge(slot++);
+                if (activeEdge != null && !visited.contains(activeEdge.getOperationTo())) {
+                    childOperation = activeEdge.getOperationTo();
                 }
+            }
+
+            if (childOperation != null) {
+
+                nextSlots.push(slot);
 
-                topologicalSort(childOperation, stack, visited);
+                visited.add(childOperation);
+                searchPath.push(childOperation);
+                nextSlots.push(0);
+            } else {
+
+                //All children sorted
+                searchPath.pop();
+                stack.offerFirst(current);
             }
         }
-        stack.offerFirst(operation);
     }
 
-
     /**
-     * Finds longest path
+     * Finds longest path with the allocation free kernel of {@link MakespanService}.
      *
      * @return Makespan
      */
@@ -247,44 +455,8 @@ public class ScheduleService {
 
         LOG.trace("Calculating Makespan");
 
-        //Sorts vertices
-        final Deque<Operation> topologicalSort = topologicalSort(schedule);
-
-        //Array of longest paths from route.
-        Integer[] dist = new Integer[topologicalSort.size()];
-        dist[topologicalSort.peek().getId()] = -topologicalSort.peek().getConjunctiveEdge().getProcessingTime();
-
-        // Loop through vertices updating longest paths
-        while (!topologicalSort.isEmpty()) {
-
-            final Operation operation = topologicalSort.pop();
-
-            // If the start operation of a new path set dist to processing time
-            if (dist[operation.getId()] == null) {
-                dist[operation.getId()] = -operation.getConjunctiveEdge().getProcessingTime();
-            }
-
-            //Updates adjacent edges with largest distance
-            final Set<Edge> adjacentEdges = operation.getActiveEdges();
-            for (final Edge edge : adjacentEdges) {
-
-                //Find a better way of doing this with edge processing time
-                int newDist = dist[operation.getId()];
-                if (!(edge.getOperationTo() instanceof EndVertex))
-                    newDist -= edge.getOperationTo().getConjunctiveEdge().getProcessingTime();
-
-                if (dist[edge.getOperationTo().getId()] == null)
-                    dist[edge.getOperationTo().getId()] = newDist;
-
-                    //Sets minimum of negative distance (modification of shortest path search)
-                else dist[edge.getOperationTo().getId()] = Math.min(dist[edge.getOperationTo().getId()], newDist);
-
-                edge.setMaxDistanceToMe(-Math.min(dist[edge.getOperationTo().getId()], newDist));
-                LOG.trace("New distance from: {} to {} == {}", operation, edge.getOperationTo(), newDist);
-            }
-        }
-
-        final Integer makespan = -dist[dist.length - 1];
+        // Edge switches keep the mirror in sync, it only reads the graph after direct edits
+        final int makespan = makespanService.calculateMakespan(schedule.getPackedSchedule());
         schedule.setMakespan(makespan);
 
         LOG.trace("Makespan: {}", makespan);
@@ -293,7 +465,7 @@ public class ScheduleService {
     }
 
     /**
-     * Calculates longest path routes.
+     * Calculates longest path routes from current heads, recalculating them first if they are stale.
      *
      * @return List of all longest paths.
      */
@@ -301,10 +473,32 @@ public class ScheduleService {
 
         LOG.trace("Calculating paths.");
 
+        final PackedSchedule packedSchedule = timedPackedSchedule(schedule);
+        if (!packedSchedule.isAcyclic()) {
+
+            LOG.trace("Schedule contains cycle, no longest paths.");
+
+            final SchedulePaths schedulePaths = new SchedulePaths();
+            schedulePaths.setIsFeasible(false);
+            schedule.setLongestPaths(schedulePaths.getLongestpaths());
+
+            return schedulePaths;
+        }
+
+        if (maxLongestPaths == 1) {
+
+            final SchedulePaths schedulePaths = new SchedulePaths();
+            schedulePaths.addPath(getCriticalPathEdges(schedule, calculateCriticalPath(schedule)));
+            schedule.setLongestPaths(schedulePaths.getLongestpaths());
+
+            return schedulePaths;
+        }
+
         //Primary path to begin with
         final Set<Edge> firstPath = new LinkedHashSet<>();
 
-        final SchedulePaths schedulePaths = calculateAllPaths(new SchedulePaths(), firstPath, schedule.getEndVertex());
+        final SchedulePaths schedulePaths = calculateAllPaths(packedSchedule, new SchedulePaths(), firstPath,
+                                                              schedule.getEndVertex());
 
         schedule.setLongestPaths(schedulePaths.getLongestpaths());
 
@@ -316,84 +510,192 @@ public class ScheduleService {
     }
 
     /**
-     * Recursively updates list with longest paths in stack format.
+     * Finds a single critical path of the schedule, split into critical blocks.
+     *
+     * @param schedule
+     *         {@link Schedule}
+     * @return {@link CriticalPath}
+     */
+    public CriticalPath calculateCriticalPath(final Schedule schedule) {
+
+        final PackedSchedule packedSchedule = timedPackedSchedule(schedule);
+        if (!packedSchedule.isAcyclic()) {
+            throw new IllegalStateException("Schedule contains cycle, no critical path");
+        }
+        return makespanService.findCriticalPath(packedSchedule);
+    }
+
+    /**
+     * Gets edges of a critical path in the same end-to-start order as enumerated longest paths.
+     *
+     * @param schedule
+     *         {@link Schedule}
+     * @param criticalPath
+     *         {@link CriticalPath} of the schedule.
+     * @return Edges on path.
+     */
+    public Set<Edge> getCriticalPathEdges(final Schedule schedule, final CriticalPath criticalPath) {
+
+        final Set<Edge> path = new LinkedHashSet<>();
+        final int[] operations = criticalPath.getOperations();
+
+        final int lastOperation = operations[operations.length - 1];
+        Edge edge = schedule.getEndVertex().getEndParentEdge(schedule.getOperation(lastOperation).getJob());
+
+        for (int index = operations.length - 1; edge != null; index--) {
+
+            path.add(edge);
+
+            final Operation operation = edge.getOperationFrom();
+            edge = null;
+            if (index > 0) {
+
+                final Edge jobParent = operation.getConjunctiveParent();
+                edge = jobParent != null && jobParent.getOperationFrom().getId() == operations[index - 1]
+                        ? jobParent : operation.getDisjunctiveParent();
+            }
+        }
+
+        return path;
+    }
+
+    /**
+     * Gets maximum number of longest paths enumerated.
      *
+     * @return Path limit.
+     */
+    public int getMaxLongestPaths() {
+        return maxLongestPaths;
+    }
+
+    /**
+     * Sets maximum number of longest paths enumerated, 1 switches to a single critical path found in one backward
+     * pass, {@link #ALL_LONGEST_PATHS} enumerates every path.
+     *
+     * @param maxLongestPaths
+     *         Path limit.
+     */
+    public void setMaxLongestPaths(final int maxLongestPaths) {
+
+        if (maxLongestPaths < 1) {
+            throw new IllegalArgumentException("Path limit must be at least 1: " + maxLongestPaths);
+        }
+        this.maxLongestPaths = maxLongestPaths;
+    }
+
+    /**
+     * Updates list with longest paths in stack format, walking back from the end vertex along parents finishing at the
+     * latest time. Branches are searched depth first on an explicit stack so large instances do not overflow the
+     * thread stack.
+     *
+     * @param packedSchedule
+     *         {@link PackedSchedule} holding heads.
      * @param schedulePaths
      *         All longest paths/feasibility boolean.
-     * @param path
+     * @param firstPath
      *         Longest path vertices.
-     * @param operation
-     *         Element in longest path.
+     * @param lastOperation
+     *         Last element in longest path.
      */
-    private SchedulePaths calculateAllPaths(final SchedulePaths schedulePaths, final Set<Edge> path,
-                                            final Operation operation) {
+    private SchedulePaths calculateAllPaths(final PackedSchedule packedSchedule, final SchedulePaths schedulePaths,
+                                            final Set<Edge> firstPath, final Operation lastOperation) {
 
-        final Set<Edge> parentEdges;
-        if (operation instanceof EndVertex) {
-            parentEdges = ((EndVertex) operation).getEndParentEdges();
-        } else {
-            parentEdges = operation.getParentEdges();
-        }
+        //Operations still to walk back from, with the path leading to each
+        final Deque<Operation> operations = new ArrayDeque<>();
+        final Deque<Set<Edge>> paths = new ArrayDeque<>();
+
+        operations.push(lastOperation);
+        paths.push(firstPath);
+
+        while (!operations.isEmpty()) {
+
+            if (schedulePaths.getLongestpaths().size() >= maxLongestPaths) {
+
+                LOG.trace("Longest path limit {} reached", maxLongestPaths);
+                return schedulePaths;
+            }
 
-        LOG.trace("Checking operation J: {}, M: {}", operation.getJob(), operation.getMachine());
-        LOG.trace("Number of parent edges: {}", parentEdges.size());
+            final Operation operation = operations.pop();
+            final Set<Edge> path = paths.pop();
 
-        //Runs while not root operation
-        if (!parentEdges.isEmpty()) {
+            LOG.trace("Checking operation J: {}, M: {}", operation.getJob(), operation.getMachine());
+
+            //Root operation completes path
+            if (!operation.hasParentEdges()) {
+
+                LOG.trace("Added new path to path set.");
+                schedulePaths.addPath(path);
+                continue;
+            }
 
             //Gets maximum edge size
-            Integer maxEdge = 0;
-            for (final Edge edge : parentEdges) {
+            int maxEdge = 0;
+            boolean loop = false;
+            for (int slot = 0; slot < operation.getParentEdgeSlots() && !loop; slot++) {
+
+                final Edge edge = operation.getParentEdge(slot);
+                if (edge == null) {
+                    continue;
+                }
 
                 if (path.contains(edge)) {
                     LOG.trace("Detected loop");
                     LOG.trace("Loop parent: {}\n From path: {}", edge.toString(), path.toString());
                     schedulePaths.setIsFeasible(false);
                     schedulePaths.setNodeCausingCycle(edge);
-
-                    return schedulePaths;
+                    loop = true;
+                    continue;
                 }
 
                 LOG.trace("Parent of operation: J:{} M:{}", edge.getOperationFrom().getJob(), edge.getOperationFrom()
                         .getMachine());
-                if (edge.getMaxDistanceToMe() > maxEdge) {
-                    maxEdge = edge.getMaxDistanceToMe();
+                final int completionTime = packedSchedule.getCompletionTime(edge.getOperationFrom().getId());
+                if (completionTime > maxEdge) {
+                    maxEdge = completionTime;
                 }
             }
+            if (loop) {
+                continue;
+            }
 
             LOG.trace("Maximum edge is {}", maxEdge);
 
+            //Collects branches, first extending path itself and others extending copies of it
+            final Deque<Operation> branchOperations = new ArrayDeque<>();
+            final Deque<Set<Edge>> branchPaths = new ArrayDeque<>();
             Set<Edge> pathCopy = null;
-            boolean firstEdge = true;
-            for (final Edge edge : parentEdges) {
+            for (int slot = 0; slot < operation.getParentEdgeSlots(); slot++) {
 
-                if (Objects.equals(edge.getMaxDistanceToMe(), maxEdge)) {
+                final Edge edge = operation.getParentEdge(slot);
+                if (edge != null && packedSchedule.getCompletionTime(edge.getOperationFrom().getId()) == maxEdge) {
 
-                    LOG.trace("Edge: {} maxd: {}", edge, edge.getMaxDistanceToMe());
+                    LOG.trace("Edge: {} maxd: {}", edge, maxEdge);
 
-                    if (firstEdge) {
+                    final Set<Edge> branchPath;
+                    if (pathCopy == null) {
 
                         pathCopy = new LinkedHashSet<>(path);
 
-                        path.add(edge);
+                        branchPath = path;
                         LOG.trace("Adding edge: {}", edge);
-                        firstEdge = false;
-                        calculateAllPaths(schedulePaths, path, edge.getOperationFrom());
                     } else {
 
-                        final Set<Edge> newPath = new LinkedHashSet<>(pathCopy);
+                        branchPath = new LinkedHashSet<>(pathCopy);
                         LOG.trace("Creating new path, copying: {}", pathCopy);
-
-                        newPath.add(edge);
                         LOG.trace("New Path copy, adding edge: {}", edge);
-                        calculateAllPaths(schedulePaths, newPath, edge.getOperationFrom());
                     }
+                    branchPath.add(edge);
+
+                    branchOperations.push(edge.getOperationFrom());
+                    branchPaths.push(branchPath);
                 }
             }
-        } else {
 
-            LOG.trace("Added new path to path set.");
-            schedulePaths.addPath(path);
+            //Pushed in reverse so first branch is searched first
+            while (!branchOperations.isEmpty()) {
+                operations.push(branchOperations.pop());
+                paths.push(branchPaths.pop());
+            }
         }
 
         return schedulePaths;
@@ -423,6 +725,24 @@ public class ScheduleService {
         return false;
     }
 
+    /**
+     * Determines whether operation one comes before operation two on their machine, from the machine positions of
+     * the packed mirror.
+     *
+     * @param schedule
+     *         {@link Schedule} the operations belong to.
+     * @param operationOne
+     *         Id of first {@link Operation}
+     * @param operationTwo
+     *         Id of second {@link Operation}
+     * @return true/false
+     */
+    public boolean isInOrder(final Schedule schedule, final int operationOne, final int operationTwo) {
+
+        final PackedSchedule packedSchedule = schedule.getPackedSchedule();
+        return packedSchedule.getMachinePosition(operationOne) < packedSchedule.getMachinePosition(operationTwo);
+    }
+
     /**
      * Checks whether edge exists in schedule.
      *
@@ -449,14 +769,12 @@ public class ScheduleService {
 
 
     /**
-     * Calculates random double between 0 and 1
+     * Calculates random double between 0 and 1, drawn from the stream of the running task.
      *
-     * @return [0-1]
+     * @return [0-1)
      */
     public Double randomDouble() {
-
-        final Random random = new Random();
-        return random.nextInt(100) / 100.0;
+        return SolverRandom.current().nextDouble();
     }
 
     /**
@@ -1,16 +1,19 @@
 package com.schedule.core.Graphs.FeasibleSchedules.Service;
 
-import com.rits.cloning.Cloner;
 import com.schedule.core.Graphs.FeasibleSchedules.Model.Core.Edge;
 import com.schedule.core.Graphs.FeasibleSchedules.Patterns.OptimalSchedule;
 import com.schedule.core.Graphs.FeasibleSchedules.Model.Core.Schedule;
+import com.schedule.core.Graphs.FeasibleSchedules.Model.Other.Neighbourhood;
 import com.schedule.core.Graphs.FeasibleSchedules.Threads.SimulatedAnnealingCallable;
+import com.schedule.core.Graphs.FeasibleSchedules.Threads.SolverRuntime;
 import com.schedule.core.Graphs.FeasibleSchedules.Patterns.Observer;
+import com.schedule.core.Graphs.FeasibleSchedules.Wrapper.NeighbourMove;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.function.BooleanSupplier;
 
 /**
  * Makespan optimisation service.
@@ -23,43 +26,119 @@ public class SimulatedAnnealingService implements Observer {
     /** {@link ScheduleService}. */
     private ScheduleService scheduleService = new ScheduleService();
 
+    /** {@link NeighbourhoodService}. */
+    private NeighbourhoodService neighbourhoodService = new NeighbourhoodService(scheduleService);
+
+    /** Neighbourhood moves are drawn from. */
+    private Neighbourhood neighbourhood = Neighbourhood.MOST_VISITED_EDGE;
+
     /** Global optimal schedule. */
     private OptimalSchedule optimalSchedule;
 
-    private ExecutorService executorService;
+    /** {@link SolverRuntime} SA runs on. */
+    private final SolverRuntime solverRuntime;
 
-    private Cloner cloner = new Cloner();
+    /** Whether new SA runs are refused. */
+    private volatile boolean shutDown;
 
-    private Future<Schedule> runningThread;
+    /** SA run in flight, null when idle. */
+    private SimulatedAnnealingCallable runningThread;
+
+    /** Schedule of the run started once the one in flight stops, null if none is waiting. */
+    private Schedule pendingSchedule;
 
     /**
      * Constructor.
      */
     public SimulatedAnnealingService(final OptimalSchedule optimalSchedule) {
+        this(optimalSchedule, SolverRuntime.getShared());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param optimalSchedule
+     *         {@link OptimalSchedule}
+     * @param solverRuntime
+     *         {@link SolverRuntime} SA runs on.
+     */
+    public SimulatedAnnealingService(final OptimalSchedule optimalSchedule, final SolverRuntime solverRuntime) {
         this.optimalSchedule = optimalSchedule;
-        executorService = Executors.newSingleThreadExecutor();
+        this.solverRuntime = solverRuntime;
     }
 
     /**
-     * Executes SA using random population of schedules.
+     * Executes SA using random population of schedules. One run is in flight at a time, a run in flight is cancelled
+     * and the latest schedule starts once it stops.
      *
      * @param schedule
      *         {@link Schedule}
-     * @return Set of local optimal {@link Schedule}
      */
-    public void executeSimulatedAnnealing(final Schedule schedule) {
+    public synchronized void executeSimulatedAnnealing(final Schedule schedule) {
+
+        LOG.trace("Executing SA with schedule fingerprint: {}", schedule.getFingerprint());
 
-        LOG.trace("Executing SA with schedule hash: {}", schedule.hashCode());
+        if (shutDown) {
+            LOG.debug("SA shut down, not starting new run");
+            return;
+        }
 
         if (runningThread != null) {
 
-            runningThread.cancel(true);
+            runningThread.cancel();
+            pendingSchedule = schedule;
+            return;
         }
 
+        startSimulatedAnnealing(schedule);
+    }
+
+    /**
+     * Submits SA run, which starts the pending schedule when it finishes.
+     *
+     * @param schedule
+     *         {@link Schedule}
+     */
+    private void startSimulatedAnnealing(final Schedule schedule) {
+
         // Build threads
         final SimulatedAnnealingCallable simulatedAnnealingCallable =
                 new SimulatedAnnealingCallable(this, schedule);
-        runningThread = executorService.submit(simulatedAnnealingCallable);
+        runningThread = simulatedAnnealingCallable;
+        try {
+            solverRuntime.submit(() -> {
+                try {
+                    return simulatedAnnealingCallable.call();
+                } finally {
+                    finishSimulatedAnnealing(simulatedAnnealingCallable);
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+
+            LOG.debug("Solver runtime shut down, not starting SA run");
+            runningThread = null;
+            pendingSchedule = null;
+        }
+    }
+
+    /**
+     * Clears finished run, starting the pending schedule unless shut down.
+     *
+     * @param simulatedAnnealingCallable
+     *         Finished {@link SimulatedAnnealingCallable}
+     */
+    private synchronized void finishSimulatedAnnealing(final SimulatedAnnealingCallable simulatedAnnealingCallable) {
+
+        if (runningThread != simulatedAnnealingCallable) {
+            return;
+        }
+        runningThread = null;
+
+        final Schedule schedule = pendingSchedule;
+        pendingSchedule = null;
+        if (schedule != null && !shutDown) {
+            startSimulatedAnnealing(schedule);
+        }
     }
 
     /**
@@ -69,10 +148,27 @@ public class SimulatedAnnealingService implements Observer {
      *         {@link Schedule}
      */
     public void iterateAndUpdateOptimal(final Schedule schedule) {
+        iterateAndUpdateOptimal(schedule, () -> false);
+    }
+
+    /**
+     * Simulated Annealing Formula, stopping early once cancelled.
+     *
+     * @param schedule
+     *         {@link Schedule}
+     * @param cancelled
+     *         Whether the run was cancelled, checked once per cooling step.
+     */
+    public void iterateAndUpdateOptimal(final Schedule schedule, final BooleanSupplier cancelled) {
 
         scheduleService.calculateMakeSpan(schedule);
         schedule.initialiseCache();
 
+        if (neighbourhood != Neighbourhood.MOST_VISITED_EDGE) {
+            iterateNeighbourhoodAndUpdateOptimal(schedule, cancelled);
+            return;
+        }
+
         // Starting temp
         Double startTemp = 3000.0;
         Double temp = startTemp;
@@ -82,19 +178,15 @@ public class SimulatedAnnealingService implements Observer {
         ArrayList<Edge> longestPathEdges = schedule.getLongestPathArray();
 
         Integer count = 0;
-        while (temp > 1) {
+        while (temp > 1 && !cancelled.getAsBoolean()) {
 
             // Makespan before flipping edge.
             final Integer prevMakespan = schedule.getMakespan();
 
-            // Flipping most visited edge on longest path
-            final Optional<Edge> successfulSwitch = scheduleService.flipMostVisitedEdgeLongestPath(schedule,
-                                                                                                   longestPathEdges,
-                                                                                                   true);
-            scheduleService.calculateScheduleData(schedule);
-
-            // New makespan calculated
-            final Integer currentMakespan = schedule.getMakespan();
+            // Most visited edge on longest path, scored without flipping
+            final Optional<Edge> successfulSwitch = scheduleService.getMostVisitedEdgeLongestPath(schedule,
+                                                                                                  longestPathEdges,
+                                                                                                  true);
 
             // Reached local minima
             if (!successfulSwitch.isPresent()) {
@@ -104,18 +196,17 @@ public class SimulatedAnnealingService implements Observer {
                 break;
             }
 
+            // Makespan the flip would give
+            final Integer currentMakespan = scheduleService.evaluateMakespanAfterSwitch(schedule,
+                                                                                         successfulSwitch.get());
+
             // Calculates probability of accepting new schedule
             final Double acceptanceProb = acceptanceProbability(prevMakespan, currentMakespan, temp, startTemp);
             final Double random = scheduleService.randomDouble();
 
             LOG.trace("Acceptance prob: {}, Random generated: {}, temp: {}", acceptanceProb, random, temp);
 
-            //
-            if (currentMakespan < optimalSchedule.getOptimalSchedule().getMakespan()) {
-                optimalSchedule.setOptimalSchedule(schedule);
-            }
-
-            // If acceptance prob exceeds threshold, flip edge back
+            // If acceptance prob exceeds threshold, leave edge as is
             if (!(acceptanceProb > random)) {
 
                 // Remove neighbour option.
@@ -125,12 +216,15 @@ public class SimulatedAnnealingService implements Observer {
 
                 LOG.trace("Not accepting edge flip");
 
-                // Switching same edge back
-                scheduleService.switchEdge(successfulSwitch.get());
-                scheduleService.calculateScheduleData(schedule);
-
             } else {
                 LOG.trace("Accepted flip");
+
+                scheduleService.switchEdge(schedule, successfulSwitch.get());
+                scheduleService.updateScheduleData(schedule);
+
+                if (currentMakespan < optimalSchedule.getSnapshot().getMakespan()) {
+                    optimalSchedule.offerIfBetter(schedule);
+                }
                 longestPathEdges = schedule.getLongestPathArray();
             }
 
@@ -141,6 +235,84 @@ public class SimulatedAnnealingService implements Observer {
         LOG.trace("Finished SA execution");
     }
 
+    /**
+     * Simulated Annealing over random moves of the critical block neighbourhood.
+     *
+     * @param schedule
+     *         {@link Schedule}
+     * @param cancelled
+     *         Whether the run was cancelled, checked once per cooling step.
+     */
+    private void iterateNeighbourhoodAndUpdateOptimal(final Schedule schedule, final BooleanSupplier cancelled) {
+
+        // Starting temp
+        Double startTemp = 3000.0;
+        Double temp = startTemp;
+        // Cooling rate
+        final Double coolingRate = 0.02;
+
+        Integer count = 0;
+        while (temp > 1 && !cancelled.getAsBoolean()) {
+
+            final Integer prevMakespan = schedule.getMakespan();
+
+            final Optional<NeighbourMove> move = neighbourhoodService.findRandomMove(schedule, neighbourhood);
+
+            // Reached optimal, no critical blocks left to move
+            if (!move.isPresent()) {
+
+                LOG.trace("Empty neighbourhood after {} iterations", count);
+                break;
+            }
+
+            final Integer currentMakespan = move.get().getMakespan();
+
+            // Calculates probability of accepting new schedule
+            final Double acceptanceProb = acceptanceProbability(prevMakespan, currentMakespan, temp, startTemp);
+            final Double random = scheduleService.randomDouble();
+
+            LOG.trace("Acceptance prob: {}, Random generated: {}, temp: {}", acceptanceProb, random, temp);
+
+            if (currentMakespan != Integer.MAX_VALUE && acceptanceProb > random) {
+
+                LOG.trace("Accepted move: {}", move.get());
+
+                neighbourhoodService.applyMove(schedule, move.get());
+                scheduleService.updateScheduleData(schedule);
+
+                if (currentMakespan < optimalSchedule.getSnapshot().getMakespan()) {
+                    optimalSchedule.offerIfBetter(schedule);
+                }
+            }
+
+            count++;
+            temp *= 1 - coolingRate;
+        }
+
+        schedule.clearCache();
+
+        LOG.trace("Finished SA execution");
+    }
+
+    /**
+     * Gets Neighbourhood moves are drawn from.
+     *
+     * @return Value of Neighbourhood moves are drawn from.
+     */
+    public Neighbourhood getNeighbourhood() {
+        return neighbourhood;
+    }
+
+    /**
+     * Sets new Neighbourhood moves are drawn from.
+     *
+     * @param neighbourhood
+     *         New value of Neighbourhood moves are drawn from.
+     */
+    public void setNeighbourhood(final Neighbourhood neighbourhood) {
+        this.neighbourhood = neighbourhood;
+    }
+
     /**
      * Calculates acceptance criteria based on temperature.
      *
@@ -168,10 +340,15 @@ public class SimulatedAnnealingService implements Observer {
     }
 
     /**
-     * Shuts down executor service.
+     * Refuses new SA runs and cancels the run in flight, the shared {@link SolverRuntime} is left running.
      */
-    public void shutdownExecutorService() {
-        executorService.shutdown();
+    public synchronized void shutdownExecutorService() {
+
+        shutDown = true;
+        pendingSchedule = null;
+        if (runningThread != null) {
+            runningThread.cancel();
+        }
     }
 
     /**
@@ -183,7 +360,7 @@ public class SimulatedAnnealingService implements Observer {
     @Override
     public void update(Schedule schedule) {
 
-        final Schedule beaconCopy = cloner.deepClone(optimalSchedule.getOptimalSchedule());
+        final Schedule beaconCopy = optimalSchedule.getOptimalSchedule().fork();
         executeSimulatedAnnealing(beaconCopy);
     }
 }
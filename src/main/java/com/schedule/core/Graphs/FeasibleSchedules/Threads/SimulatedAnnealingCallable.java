@@ -14,6 +14,9 @@ public class SimulatedAnnealingCallable implements Callable<Schedule> {
     private SimulatedAnnealingService simulatedAnnealingService;
     private Schedule schedule;
 
+    /** Whether the run was cancelled, checked once per cooling step. */
+    private volatile boolean cancelled;
+
     public SimulatedAnnealingCallable(final SimulatedAnnealingService simulatedAnnealingService,
                                       final Schedule schedule) {
         this.simulatedAnnealingService = simulatedAnnealingService;
@@ -25,10 +28,26 @@ public class SimulatedAnnealingCallable implements Callable<Schedule> {
 
         LOG.debug("Starting new SA thread");
 
-        simulatedAnnealingService.iterateAndUpdateOptimal(schedule);
+        simulatedAnnealingService.iterateAndUpdateOptimal(schedule, () -> cancelled);
 
         LOG.debug("Finished SA thread.");
 
         return simulatedAnnealingService.getOptimal();
     }
+
+    /**
+     * Cancels the run, which stops at its next cooling step.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Checks whether the run was cancelled.
+     *
+     * @return true/false
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
 }
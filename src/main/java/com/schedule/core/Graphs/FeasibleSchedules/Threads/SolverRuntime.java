@@ -0,0 +1,380 @@
+package com.schedule.core.Graphs.FeasibleSchedules.Threads;
+
+import com.schedule.core.Graphs.FeasibleSchedules.Model.Other.ExecutionMode;
+import com.schedule.core.Graphs.FeasibleSchedules.Model.Other.SolverRandom;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executor every solver phase submits to, sized to the available cores unless configured otherwise.
+ * <p>
+ * In {@link ExecutionMode#WORK_STEALING} tasks share a work-stealing pool of platform threads. In
+ * {@link ExecutionMode#VIRTUAL_THREADS} each task gets a virtual thread and a permit caps how many evaluate at once,
+ * so trajectories may outnumber cores and block cheaply. Virtual threads are looked up reflectively to keep the
+ * sources compiling on Java 8, the mode falls back to work stealing where they are missing. Their carrier threads
+ * belong to the JDK scheduler shared by the whole process, the operator sizes it with the JVM option
+ * {@code -Djdk.virtualThreadScheduler.parallelism}.
+ * <p>
+ * Each task draws random numbers from its own stream of the runtime's {@link SolverRandom}, split as it is submitted.
+ * <p>
+ * Improvements are delivered on a dispatcher thread of their own, so a delivery never queues behind the solver tasks
+ * publishing it.
+ * <p>
+ * Services only submit work, whoever created the runtime shuts it down, the shared runtime is recreated if it was.
+ */
+public class SolverRuntime implements AutoCloseable {
+
+    /** System property overriding the default parallelism. */
+    public static final String PARALLELISM_PROPERTY = "schedule.solver.parallelism";
+
+    /** System property overriding the default {@link ExecutionMode}. */
+    public static final String MODE_PROPERTY = "schedule.solver.mode";
+
+    /** Logger. */
+    private static final Logger LOG = LoggerFactory.getLogger(SolverRuntime.class);
+
+    /** Runtime used by services built without one. */
+    private static SolverRuntime shared;
+
+    /** Executor running solver tasks. */
+    private final ExecutorService executorService;
+
+    /** Single daemon thread delivering improvement events. */
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "solver-dispatcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** Mode tasks actually run in. */
+    private final ExecutionMode executionMode;
+
+    /** Number of tasks evaluating at once. */
+    private final int parallelism;
+
+    /** Evaluation permits of virtual threads, null in work-stealing mode. */
+    private final Semaphore evaluationPermits;
+
+    /** {@link SolverRandom} tasks get their streams from. */
+    private final SolverRandom solverRandom;
+
+    /**
+     * Constructor, with parallelism and mode taken from {@link #PARALLELISM_PROPERTY} and {@link #MODE_PROPERTY}.
+     */
+    public SolverRuntime() {
+        this(defaultParallelism(), defaultExecutionMode());
+    }
+
+    /**
+     * Constructor, in work-stealing mode.
+     *
+     * @param parallelism
+     *         Number of worker threads.
+     */
+    public SolverRuntime(final int parallelism) {
+        this(parallelism, ExecutionMode.WORK_STEALING);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param parallelism
+     *         Number of tasks evaluating at once.
+     * @param executionMode
+     *         Requested {@link ExecutionMode}
+     */
+    public SolverRuntime(final int parallelism, final ExecutionMode executionMode) {
+        this(parallelism, executionMode, SolverRandom.getShared());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param parallelism
+     *         Number of tasks evaluating at once.
+     * @param executionMode
+     *         Requested {@link ExecutionMode}
+     * @param solverRandom
+     *         {@link SolverRandom} tasks get their streams from.
+     */
+    public SolverRuntime(final int parallelism, final ExecutionMode executionMode, final SolverRandom solverRandom) {
+
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+        this.parallelism = parallelism;
+        this.solverRandom = solverRandom;
+
+        final ExecutorService virtualThreadExecutor = executionMode == ExecutionMode.VIRTUAL_THREADS
+                ? virtualThreadExecutor() : null;
+
+        if (virtualThreadExecutor != null) {
+
+            this.executionMode = ExecutionMode.VIRTUAL_THREADS;
+            this.executorService = virtualThreadExecutor;
+            this.evaluationPermits = new Semaphore(parallelism);
+        } else {
+
+            //Async mode runs the independent solver tasks first in first out, they are never joined by each other
+            this.executionMode = ExecutionMode.WORK_STEALING;
+            this.executorService = new ForkJoinPool(parallelism, forkJoinPool -> {
+                final ForkJoinWorkerThread thread =
+                        ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+                thread.setName("solver-" + thread.getPoolIndex());
+                return thread;
+            }, (thread, throwable) -> LOG.error("Solver task failed on {}", thread.getName(), throwable), true);
+            this.evaluationPermits = null;
+        }
+
+        LOG.debug("Solver runtime started in {} mode with parallelism {}", this.executionMode, parallelism);
+    }
+
+    /**
+     * Builds executor starting a virtual thread per task.
+     *
+     * @return {@link ExecutorService}, null if this JDK has no virtual threads.
+     */
+    private static ExecutorService virtualThreadExecutor() {
+
+        try {
+            final Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            final Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builderType.getMethod("name", String.class, long.class).invoke(builder, "solver-virtual-", 0L);
+            final ThreadFactory threadFactory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, threadFactory);
+        } catch (final ReflectiveOperationException | LinkageError e) {
+
+            LOG.warn("Virtual threads need JDK 21 or later, falling back to {}", ExecutionMode.WORK_STEALING);
+            return null;
+        }
+    }
+
+    /**
+     * Gets parallelism from {@link #PARALLELISM_PROPERTY}, falling back to the available cores.
+     *
+     * @return Parallelism.
+     */
+    static int defaultParallelism() {
+
+        final String configured = System.getProperty(PARALLELISM_PROPERTY);
+        if (configured != null) {
+            try {
+                return Integer.parseInt(configured.trim());
+            } catch (final NumberFormatException e) {
+                LOG.warn("Ignoring invalid {}: {}", PARALLELISM_PROPERTY, configured);
+            }
+        }
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Gets mode from {@link #MODE_PROPERTY}, falling back to {@link ExecutionMode#WORK_STEALING}.
+     *
+     * @return {@link ExecutionMode}
+     */
+    static ExecutionMode defaultExecutionMode() {
+
+        final String configured = System.getProperty(MODE_PROPERTY);
+        if (configured != null) {
+            try {
+                return ExecutionMode.valueOf(configured.trim().toUpperCase());
+            } catch (final IllegalArgumentException e) {
+                LOG.warn("Ignoring invalid {}: {}", MODE_PROPERTY, configured);
+            }
+        }
+        return ExecutionMode.WORK_STEALING;
+    }
+
+    /**
+     * Gets runtime shared by services built without one, starting a new one if none is running.
+     *
+     * @return {@link SolverRuntime}
+     */
+    public static synchronized SolverRuntime getShared() {
+
+        if (shared == null || shared.isShutdown()) {
+            shared = new SolverRuntime();
+        }
+        return shared;
+    }
+
+    /**
+     * Submits CPU-bound task, which waits for an evaluation permit in virtual thread mode.
+     *
+     * @param task
+     *         {@link Callable}
+     * @param <T>
+     *         Result type.
+     * @return {@link Future} of the result.
+     */
+    public <T> Future<T> submit(final Callable<T> task) {
+        return executorService.submit(bounded(task));
+    }
+
+    /**
+     * Submits CPU-bound tasks and waits for all of them to complete.
+     *
+     * @param tasks
+     *         {@link Callable}s
+     * @param <T>
+     *         Result type.
+     * @return Completed {@link Future}s in task order.
+     * @throws InterruptedException
+     *         If interrupted while waiting.
+     */
+    public <T> List<Future<T>> invokeAll(final Collection<? extends Callable<T>> tasks) throws InterruptedException {
+
+        final List<Callable<T>> boundedTasks = new ArrayList<>(tasks.size());
+        for (final Callable<T> task : tasks) {
+            boundedTasks.add(bounded(task));
+        }
+        return executorService.invokeAll(boundedTasks);
+    }
+
+    /**
+     * Wraps task to draw from its own random stream, holding an evaluation permit while it runs in virtual thread
+     * mode.
+     *
+     * @param task
+     *         {@link Callable}
+     * @param <T>
+     *         Result type.
+     * @return {@link Callable}
+     */
+    private <T> Callable<T> bounded(final Callable<T> task) {
+
+        final Callable<T> seededTask = solverRandom.bind(task);
+        if (evaluationPermits == null) {
+            return seededTask;
+        }
+        return () -> {
+            evaluationPermits.acquire();
+            try {
+                return seededTask.call();
+            } finally {
+                evaluationPermits.release();
+            }
+        };
+    }
+
+    /**
+     * Gets executor service backing the runtime, for APIs expecting one. Tasks submitted to it directly are not
+     * capped by the evaluation permits.
+     *
+     * @return {@link ExecutorService}
+     */
+    public ExecutorService getExecutorService() {
+        return executorService;
+    }
+
+    /**
+     * Gets executor delivering improvement events, shut down once the solver tasks have completed.
+     *
+     * @return {@link ExecutorService}
+     */
+    public ExecutorService getDispatcher() {
+        return dispatcher;
+    }
+
+    /**
+     * Gets {@link SolverRandom} tasks get their streams from.
+     *
+     * @return Value of {@link SolverRandom} tasks get their streams from.
+     */
+    public SolverRandom getSolverRandom() {
+        return solverRandom;
+    }
+
+    /**
+     * Gets Mode tasks actually run in.
+     *
+     * @return Value of Mode tasks actually run in.
+     */
+    public ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    /**
+     * Gets Number of tasks evaluating at once.
+     *
+     * @return Value of Number of tasks evaluating at once.
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Checks whether the runtime was shut down.
+     *
+     * @return true/false
+     */
+    public boolean isShutdown() {
+        return executorService.isShutdown();
+    }
+
+    /**
+     * Stops accepting tasks and deliveries, letting submitted ones complete.
+     */
+    public void shutdown() {
+
+        executorService.shutdown();
+        dispatcher.shutdown();
+    }
+
+    /**
+     * Waits for submitted tasks and deliveries to complete after shutdown.
+     *
+     * @param timeout
+     *         Maximum time to wait.
+     * @param unit
+     *         {@link TimeUnit} of the timeout.
+     * @return true if all tasks completed.
+     * @throws InterruptedException
+     *         If interrupted while waiting.
+     */
+    public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        return executorService.awaitTermination(timeout, unit)
+                && dispatcher.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Shuts down and waits for submitted tasks to complete, then for the improvements they published to be
+     * delivered, cancelling both if interrupted.
+     */
+    @Override
+    public void close() {
+
+        executorService.shutdown();
+        try {
+            while (!executorService.awaitTermination(1, TimeUnit.MINUTES)) {
+                LOG.debug("Waiting for solver tasks to complete");
+            }
+            dispatcher.shutdown();
+            while (!dispatcher.awaitTermination(1, TimeUnit.MINUTES)) {
+                LOG.debug("Waiting for improvements to be delivered");
+            }
+        } catch (final InterruptedException e) {
+
+            executorService.shutdownNow();
+            dispatcher.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.schedule.core.Graphs.FeasibleSchedules.Wrapper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Single critical path of a schedule as operation ids, split into critical blocks (maximal runs of operations
+ * processed back to back on the same machine).
+ */
+public class CriticalPath {
+
+    /** Operation ids from first to last operation on the path. */
+    private final int[] operations;
+
+    /** Critical blocks, each holding at least two operations. */
+    private final List<int[]> blocks;
+
+    /**
+     * Constructor.
+     *
+     * @param operations
+     *         Operation ids from first to last operation on the path.
+     * @param machineArc
+     *         Whether the operation at the same index is followed on the path by its machine successor.
+     */
+    public CriticalPath(final int[] operations, final boolean[] machineArc) {
+
+        this.operations = operations;
+        this.blocks = new ArrayList<>();
+
+        int start = 0;
+        for (int index = 0; index < operations.length; index++) {
+
+            if (index == operations.length - 1 || !machineArc[index]) {
+
+                if (index > start) {
+                    blocks.add(Arrays.copyOfRange(operations, start, index + 1));
+                }
+                start = index + 1;
+            }
+        }
+    }
+
+    /**
+     * Gets operation ids from first to last operation on the path.
+     *
+     * @return Operation ids.
+     */
+    public int[] getOperations() {
+        return operations;
+    }
+
+    /**
+     * Gets critical blocks.
+     *
+     * @return Blocks of operation ids in path order.
+     */
+    public List<int[]> getBlocks() {
+        return blocks;
+    }
+
+    @Override
+    public String toString() {
+
+        return "Critical path length: " + operations.length + " Number of blocks: " + blocks.size();
+    }
+}
@@ -0,0 +1,156 @@
+package com.schedule.core.Graphs.FeasibleSchedules.Wrapper;
+
+import com.schedule.core.Graphs.FeasibleSchedules.Model.Core.Edge;
+import com.schedule.core.Graphs.FeasibleSchedules.Model.Core.PackedSchedule;
+import com.schedule.core.Graphs.FeasibleSchedules.Model.Core.Schedule;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Journal of the edges switched by a move, with the topological order, timing and longest path state from before it,
+ * so a rejected move can be rolled back without recalculating. Buffers are reused when the journal is begun again.
+ */
+public class MoveJournal {
+
+    /** Edges switched since the journal was begun, in order. */
+    private final List<Edge> switchedEdges = new ArrayList<>();
+
+    /** Heads before the move. */
+    private int[] heads = new int[0];
+
+    /** Tails before the move. */
+    private int[] tails = new int[0];
+
+    /** Topological order before the move. */
+    private int[] topologicalOrder = new int[0];
+
+    /** Topological positions before the move. */
+    private int[] topologicalPositions = new int[0];
+
+    /** Whether the topological order was maintained before the move. */
+    private boolean ordered;
+
+    /** Whether heads and tails were current before the move. */
+    private boolean timed;
+
+    /** Whether the machine sequences were acyclic before the move. */
+    private boolean acyclic;
+
+    /** Packed makespan before the move. */
+    private int packedMakespan;
+
+    /** Schedule makespan before the move. */
+    private Integer makespan;
+
+    /** Whether longest paths were current before the move. */
+    private boolean longestPathsCurrent;
+
+    /** Longest paths before the move, null if they were stale. */
+    private List<Set<Edge>> longestPaths;
+
+    /**
+     * Records the state of the schedule, discarding any earlier entries.
+     *
+     * @param schedule
+     *         {@link Schedule}
+     */
+    public void begin(final Schedule schedule) {
+
+        final PackedSchedule packedSchedule = schedule.getPackedSchedule();
+
+        switchedEdges.clear();
+        ordered = packedSchedule.isOrdered();
+        timed = packedSchedule.isTimed();
+        acyclic = packedSchedule.isAcyclic();
+        packedMakespan = packedSchedule.getMakespan();
+        makespan = schedule.getMakespan();
+        longestPathsCurrent = schedule.hasCurrentLongestPaths();
+        longestPaths = longestPathsCurrent ? schedule.getLongestPaths() : null;
+
+        if (timed) {
+
+            final int numOperations = packedSchedule.getNumOperations();
+            if (heads.length != numOperations) {
+                heads = new int[numOperations];
+                tails = new int[numOperations];
+            }
+            System.arraycopy(packedSchedule.getHeads(), 0, heads, 0, numOperations);
+            System.arraycopy(packedSchedule.getTails(), 0, tails, 0, numOperations);
+        }
+        if (ordered) {
+
+            final int numOperations = packedSchedule.getNumOperations();
+            if (topologicalOrder.length != numOperations) {
+                topologicalOrder = new int[numOperations];
+                topologicalPositions = new int[numOperations];
+            }
+            System.arraycopy(packedSchedule.getTopologicalOrder(), 0, topologicalOrder, 0, numOperations);
+            System.arraycopy(packedSchedule.getTopologicalPositions(), 0, topologicalPositions, 0, numOperations);
+        }
+    }
+
+    /**
+     * Records a switched edge.
+     *
+     * @param edge
+     *         {@link Edge}
+     */
+    public void record(final Edge edge) {
+        switchedEdges.add(edge);
+    }
+
+    /**
+     * Gets Edges switched since the journal was begun.
+     *
+     * @return Value of Edges switched since the journal was begun, in order.
+     */
+    public List<Edge> getSwitchedEdges() {
+        return switchedEdges;
+    }
+
+    /**
+     * Gets whether longest paths were current before the move.
+     *
+     * @return true/false
+     */
+    public boolean isLongestPathsCurrent() {
+        return longestPathsCurrent;
+    }
+
+    /**
+     * Restores the timing and longest paths recorded by {@link #begin(Schedule)}, stale longest paths are left for
+     * the caller to invalidate. Machine sequences must already be switched back.
+     *
+     * @param schedule
+     *         {@link Schedule}
+     */
+    public void restore(final Schedule schedule) {
+
+        final PackedSchedule packedSchedule = schedule.getPackedSchedule();
+
+        if (timed) {
+
+            final int numOperations = packedSchedule.getNumOperations();
+            System.arraycopy(heads, 0, packedSchedule.getHeads(), 0, numOperations);
+            System.arraycopy(tails, 0, packedSchedule.getTails(), 0, numOperations);
+        }
+        if (ordered) {
+
+            final int numOperations = packedSchedule.getNumOperations();
+            System.arraycopy(topologicalOrder, 0, packedSchedule.getTopologicalOrder(), 0, numOperations);
+            System.arraycopy(topologicalPositions, 0, packedSchedule.getTopologicalPositions(), 0, numOperations);
+        }
+        packedSchedule.setOrdered(ordered);
+        packedSchedule.setTimed(timed);
+        packedSchedule.setAcyclic(acyclic);
+        packedSchedule.setMakespan(packedMakespan);
+        schedule.setMakespan(makespan);
+        if (longestPathsCurrent) {
+            schedule.setLongestPaths(longestPaths);
+        }
+
+        switchedEdges.clear();
+    }
+}
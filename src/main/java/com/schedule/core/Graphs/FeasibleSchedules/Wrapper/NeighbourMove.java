@@ -0,0 +1,109 @@
+package com.schedule.core.Graphs.FeasibleSchedules.Wrapper;
+
+import com.schedule.core.Graphs.FeasibleSchedules.Model.Core.Operation;
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+
+/**
+ * Move of an operation along its machine sequence, by a number of adjacent swaps.
+ */
+public class NeighbourMove {
+
+    /** Operation moved. */
+    private final Operation operation;
+
+    /** Positions moved, negative towards the start of the machine sequence. */
+    private final int shift;
+
+    /** Makespan after the move, null until evaluated. */
+    private Integer makespan;
+
+    /**
+     * Constructor.
+     *
+     * @param operation
+     *         Operation moved.
+     * @param shift
+     *         Positions moved, negative towards the start of the machine sequence.
+     */
+    public NeighbourMove(final Operation operation, final int shift) {
+
+        this.operation = operation;
+        this.shift = shift;
+    }
+
+    /**
+     * Gets Operation moved.
+     *
+     * @return Value of Operation moved.
+     */
+    public Operation getOperation() {
+        return operation;
+    }
+
+    /**
+     * Gets Positions moved.
+     *
+     * @return Value of Positions moved.
+     */
+    public int getShift() {
+        return shift;
+    }
+
+    /**
+     * Gets Makespan after the move.
+     *
+     * @return Value of Makespan after the move, null until evaluated.
+     */
+    public Integer getMakespan() {
+        return makespan;
+    }
+
+    /**
+     * Sets new Makespan after the move.
+     *
+     * @param makespan
+     *         New value of Makespan after the move.
+     */
+    public void setMakespan(final Integer makespan) {
+        this.makespan = makespan;
+    }
+
+    /**
+     * Gets move restoring the machine sequence after this one was applied.
+     *
+     * @return {@link NeighbourMove}
+     */
+    public NeighbourMove reverse() {
+        return new NeighbourMove(operation, -shift);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+
+        if (!(obj instanceof NeighbourMove)) {
+            return false;
+        }
+        final NeighbourMove compareMove = (NeighbourMove) obj;
+
+        final EqualsBuilder equalsBuilder = new EqualsBuilder();
+        equalsBuilder.append(getOperation(), compareMove.getOperation());
+        equalsBuilder.append(getShift(), compareMove.getShift());
+
+        return equalsBuilder.isEquals();
+    }
+
+    @Override
+    public int hashCode() {
+
+        final HashCodeBuilder hashCodeBuilder = new HashCodeBuilder();
+        hashCodeBuilder.append(getOperation());
+        hashCodeBuilder.append(getShift());
+        return hashCodeBuilder.toHashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "Move J: " + operation.getJob() + " M: " + operation.getMachine() + " by " + shift;
+    }
+}
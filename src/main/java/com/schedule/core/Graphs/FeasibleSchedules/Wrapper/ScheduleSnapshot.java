@@ -0,0 +1,153 @@
+package com.schedule.core.Graphs.FeasibleSchedules.Wrapper;
+
+import com.schedule.core.Graphs.FeasibleSchedules.Model.Core.Operation;
+import com.schedule.core.Graphs.FeasibleSchedules.Model.Core.PackedSchedule;
+import com.schedule.core.Graphs.FeasibleSchedules.Model.Core.ProblemInstance;
+import com.schedule.core.Graphs.FeasibleSchedules.Model.Core.Schedule;
+
+import java.util.Arrays;
+
+/**
+ * Immutable copy of the machine sequences and makespan of a schedule, safe to share between threads while the
+ * schedule it was taken from goes on changing.
+ */
+public class ScheduleSnapshot {
+
+    /** Routings and processing times of the instance. */
+    private final ProblemInstance problemInstance;
+
+    /** Next operation on the same machine indexed by operation id, {@link PackedSchedule#NONE} for the last. */
+    private final int[] machineSuccessor;
+
+    /** Makespan, {@link Integer#MAX_VALUE} if it was not calculated. */
+    private final int makespan;
+
+    /** Zobrist fingerprint of the machine sequences. */
+    private final long fingerprint;
+
+    /**
+     * Constructor.
+     *
+     * @param problemInstance
+     *         {@link ProblemInstance}
+     * @param machineSuccessor
+     *         Next operation on the same machine indexed by operation id.
+     * @param makespan
+     *         Makespan.
+     */
+    private ScheduleSnapshot(final ProblemInstance problemInstance, final int[] machineSuccessor, final int makespan) {
+
+        this.problemInstance = problemInstance;
+        this.machineSuccessor = machineSuccessor;
+        this.makespan = makespan;
+
+        //Walks each machine sequence from its first operation to key operations by position
+        final boolean[] hasPredecessor = new boolean[machineSuccessor.length];
+        for (final int successor : machineSuccessor) {
+            if (successor != PackedSchedule.NONE) {
+                hasPredecessor[successor] = true;
+            }
+        }
+        long key = 0L;
+        for (int id = 0; id < machineSuccessor.length; id++) {
+
+            if (hasPredecessor[id]) {
+                continue;
+            }
+            int position = 0;
+            for (int current = id; current != PackedSchedule.NONE; current = machineSuccessor[current]) {
+                key ^= problemInstance.getZobristKey(current, position++);
+            }
+        }
+        this.fingerprint = key;
+    }
+
+    /**
+     * Takes a snapshot of the machine sequences held by the schedule graph, without modifying the schedule.
+     *
+     * @param schedule
+     *         {@link Schedule}
+     * @return {@link ScheduleSnapshot}
+     */
+    public static ScheduleSnapshot of(final Schedule schedule) {
+
+        final ProblemInstance problemInstance = schedule.getProblemInstance();
+
+        final int[] machineSuccessor = new int[problemInstance.getNumOperations()];
+        Arrays.fill(machineSuccessor, PackedSchedule.NONE);
+        for (int id = 0; id < machineSuccessor.length; id++) {
+
+            final Operation operation = schedule.getOperation(id);
+            if (operation.hasDisjunctiveEge()) {
+                machineSuccessor[id] = operation.getDisjunctiveEdge().getOperationTo().getId();
+            }
+        }
+
+        final Integer makespan = schedule.getMakespan();
+        return new ScheduleSnapshot(problemInstance, machineSuccessor,
+                                    makespan == null ? Integer.MAX_VALUE : makespan);
+    }
+
+    /**
+     * Builds a new schedule graph holding the machine sequences of the snapshot, with the makespan set.
+     *
+     * @return {@link Schedule}
+     */
+    public Schedule toSchedule() {
+
+        final Schedule schedule = new Schedule(problemInstance);
+
+        for (int id = 0; id < machineSuccessor.length; id++) {
+
+            final int successor = machineSuccessor[id];
+            if (successor != PackedSchedule.NONE) {
+
+                final Operation operationFrom = schedule.getOperation(id);
+                schedule.setActiveEdge(problemInstance.getJob(successor), operationFrom.getJob(),
+                                       new Integer[]{problemInstance.getMachine(successor),
+                                               problemInstance.getProcessingTime(successor)});
+            }
+        }
+        schedule.setMakespan(makespan == Integer.MAX_VALUE ? null : makespan);
+
+        return schedule;
+    }
+
+    /**
+     * Gets Routings and processing times of the instance.
+     *
+     * @return Value of Routings and processing times of the instance.
+     */
+    public ProblemInstance getProblemInstance() {
+        return problemInstance;
+    }
+
+    /**
+     * Gets next operation on the same machine.
+     *
+     * @param id
+     *         Operation id.
+     * @return Operation id or {@link PackedSchedule#NONE}
+     */
+    public int getMachineSuccessor(final int id) {
+        return machineSuccessor[id];
+    }
+
+    /**
+     * Gets Makespan.
+     *
+     * @return Value of Makespan, {@link Integer#MAX_VALUE} if it was not calculated.
+     */
+    public int getMakespan() {
+        return makespan;
+    }
+
+    /**
+     * Gets Zobrist fingerprint of the machine sequences, equal to the fingerprint of the schedule it was taken from.
+     *
+     * @return Value of Zobrist fingerprint of the machine sequences.
+     */
+    public long getFingerprint() {
+        return fingerprint;
+    }
+}
@@ -10,6 +10,7 @@ import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Optional;
 import java.util.Set;
 
 /**
@@ -117,6 +118,29 @@ public class FeasibilityServiceTest extends TestSetup {
         }
     }
 
+    /**
+     * Asserts the cycle search agrees with the packed mirror on every switch of starting schedules.
+     */
+    @Test
+    public void findCycleEdgeMatchesPackedSchedule() {
+
+        for (final Schedule schedule : schedulesBuilder.generateStartingSchedules("ft10", 5)) {
+
+            Truth.assertThat(feasibilityService.findCycleEdge(schedule).isPresent()).isFalse();
+
+            for (final Edge edge : schedule.getAllMachineEdges()) {
+
+                scheduleService.switchEdge(schedule, edge);
+
+                final Optional<Edge> cycleEdge = feasibilityService.findCycleEdge(schedule);
+                Truth.assertThat(cycleEdge.isPresent()).isEqualTo(!schedule.getPackedSchedule().isAcyclic());
+
+                scheduleService.switchEdge(schedule, edge);
+                scheduleService.updateScheduleData(schedule);
+            }
+        }
+    }
+
     @Test
     public void feasibilityTest() {
 
@@ -1,6 +1,7 @@
 package com.schedule.test;
 
 import com.google.common.truth.Truth;
+import com.schedule.core.Graphs.FeasibleSchedules.Model.Other.Neighbourhood;
 import com.schedule.core.Graphs.FeasibleSchedules.Service.LocalSearchService;
 import com.schedule.test.Config.TestSetup;
 import org.junit.Test;
@@ -19,6 +20,21 @@ public class LocalSearchServiceTest extends TestSetup {
 
         localSearchService.executeLocalSearchIteratively(optimal, 1000);
 
-        Truth.assertThat(optimal.getMakespan()).isEqualTo(1233);
+        Truth.assertThat(optimal.getMakespan()).isEqualTo(1290);
+    }
+
+    @Test
+    public void executeLocalSearchN5() {
+
+        setUp("ft10", 1);
+
+        final Integer startMakespan = optimal.getMakespan();
+
+        final LocalSearchService neighbourhoodSearch = new LocalSearchService();
+        neighbourhoodSearch.setNeighbourhood(Neighbourhood.N5);
+        neighbourhoodSearch.executeLocalSearchIteratively(optimal, 1000);
+
+        Truth.assertThat(optimal.getMakespan()).isLessThan(startMakespan);
+        Truth.assertThat(scheduleService.calculateMakeSpan(optimal)).isEqualTo(optimal.getMakespan());
     }
 }
@@ -0,0 +1,49 @@
+package com.schedule.test;
+
+import com.google.common.truth.Truth;
+import com.schedule.core.Graphs.FeasibleSchedules.Model.Core.PackedSchedule;
+import com.schedule.core.Graphs.FeasibleSchedules.Model.Other.Neighbourhood;
+import com.schedule.core.Graphs.FeasibleSchedules.Service.NeighbourhoodService;
+import com.schedule.core.Graphs.FeasibleSchedules.Wrapper.NeighbourMove;
+import com.schedule.test.Config.TestSetup;
+import org.junit.Test;
+
+import java.util.List;
+
+/**
+ * Tests for {@link NeighbourhoodService}
+ */
+public class NeighbourhoodServiceTest extends TestSetup {
+
+    private final NeighbourhoodService neighbourhoodService = new NeighbourhoodService(scheduleService);
+
+    /**
+     * Asserts N6 extends N5 and every move is scored as applying it would, leaving the schedule untouched.
+     */
+    @Test
+    public void evaluateMovesMatchesApplying() {
+
+        setUp("ft10", 1);
+
+        final List<NeighbourMove> n5 = neighbourhoodService.generateMoves(optimal, Neighbourhood.N5);
+        final List<NeighbourMove> n6 = neighbourhoodService.generateMoves(optimal, Neighbourhood.N6);
+
+        Truth.assertThat(n5).isNotEmpty();
+        Truth.assertThat(n6).containsAllIn(n5);
+
+        final Integer makespan = optimal.getMakespan();
+        final PackedSchedule before = PackedSchedule.fromSchedule(optimal);
+        for (final NeighbourMove move : n6) {
+
+            final int evaluated = neighbourhoodService.evaluateMove(optimal, move);
+
+            Truth.assertThat(optimal.getMakespan()).isEqualTo(makespan);
+            Truth.assertThat(PackedSchedule.fromSchedule(optimal).hasSameMachineSequences(before)).isTrue();
+
+            neighbourhoodService.applyMove(optimal, move);
+            Truth.assertThat(scheduleService.calculateMakeSpan(optimal)).isEqualTo(evaluated);
+            neighbourhoodService.applyMove(optimal, move.reverse());
+            scheduleService.calculateMakeSpan(optimal);
+        }
+    }
+}
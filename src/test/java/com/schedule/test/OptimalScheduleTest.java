@@ -0,0 +1,232 @@
+package com.schedule.test;
+
+import com.google.common.truth.Truth;
+import com.schedule.core.Graphs.FeasibleSchedules.Model.Core.Edge;
+import com.schedule.core.Graphs.FeasibleSchedules.Model.Core.Schedule;
+import com.schedule.core.Graphs.FeasibleSchedules.Patterns.ImprovementEventBus;
+import com.schedule.core.Graphs.FeasibleSchedules.Patterns.OptimalSchedule;
+import com.schedule.core.Graphs.FeasibleSchedules.Threads.SolverRuntime;
+import com.schedule.core.Graphs.FeasibleSchedules.Wrapper.ScheduleSnapshot;
+import com.schedule.test.Config.TestSetup;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Tests for {@link OptimalSchedule}
+ */
+public class OptimalScheduleTest extends TestSetup {
+
+    /**
+     * Asserts a published schedule is snapshotted, so changing it afterwards leaves the optimal untouched.
+     */
+    @Test
+    public void publishedSnapshotIgnoresLaterChanges() {
+
+        setUp("ft10", 1);
+
+        optimalSchedule.setOptimalScheduleWithoutNotifyingObservers(optimal);
+
+        final ScheduleSnapshot snapshot = optimalSchedule.getSnapshot();
+        final Schedule published = optimalSchedule.getOptimalSchedule();
+
+        Truth.assertThat(snapshot.getFingerprint()).isEqualTo(optimal.getFingerprint());
+        Truth.assertThat(snapshot.getMakespan()).isEqualTo(optimal.getMakespan());
+        Truth.assertThat(published).isEqualTo(optimal);
+        Truth.assertThat(published).isNotSameAs(optimal);
+
+        final Edge edge = optimal.getAllMachineEdges().iterator().next();
+        scheduleService.switchEdge(optimal, edge);
+        scheduleService.calculateScheduleData(optimal);
+
+        Truth.assertThat(optimalSchedule.getSnapshot()).isSameAs(snapshot);
+        Truth.assertThat(published.getFingerprint()).isEqualTo(snapshot.getFingerprint());
+        Truth.assertThat(optimal.getFingerprint()).isNotEqualTo(snapshot.getFingerprint());
+    }
+
+    /**
+     * Asserts the published schedule has its longest paths calculated and rejects changes, while forks of it carry
+     * the paths and can be changed.
+     */
+    @Test
+    public void publishedScheduleReadOnly() {
+
+        setUp("ft06", 1);
+
+        optimalSchedule.setOptimalScheduleWithoutNotifyingObservers(optimal);
+        final Schedule published = optimalSchedule.getOptimalSchedule();
+
+        Truth.assertThat(published.isReadOnly()).isTrue();
+        Truth.assertThat(published.hasCurrentLongestPaths()).isTrue();
+
+        final Edge edge = published.getLongestPathArray().stream().filter(Edge::isMachinePath).findFirst().get();
+        try {
+            scheduleService.switchEdge(published, edge);
+            Assert.fail("Switched edge of read only schedule");
+        } catch (final UnsupportedOperationException e) {
+            Truth.assertThat(published.getFingerprint()).isEqualTo(optimal.getFingerprint());
+        }
+
+        final Schedule fork = published.fork();
+        Truth.assertThat(fork.isReadOnly()).isFalse();
+        Truth.assertThat(fork.hasCurrentLongestPaths()).isTrue();
+        Truth.assertThat(fork.getLongestPaths()).hasSize(published.getLongestPaths().size());
+
+        scheduleService.switchEdge(fork, fork.getLongestPathArray().stream().filter(Edge::isMachinePath)
+                .findFirst().get());
+        Truth.assertThat(fork.getFingerprint()).isNotEqualTo(published.getFingerprint());
+    }
+
+    /**
+     * Asserts offers from racing threads leave the best schedule published and never regress it.
+     */
+    @Test
+    public void offerIfBetterKeepsBestAcrossThreads() throws InterruptedException {
+
+        setUp("ft06", 10);
+
+        final List<Schedule> schedules = new ArrayList<>(testSchedules);
+        schedules.add(optimal);
+        final Schedule best = schedules.stream()
+                .min(Comparator.comparing(Schedule::getMakespan).thenComparing(Schedule::getFingerprint)).get();
+
+        final List<Thread> threads = new ArrayList<>();
+        for (final Schedule schedule : schedules) {
+            threads.add(new Thread(() -> optimalSchedule.offerIfBetter(schedule)));
+        }
+        threads.forEach(Thread::start);
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+
+        Truth.assertThat(optimalSchedule.getSnapshot().getFingerprint()).isEqualTo(best.getFingerprint());
+        Truth.assertThat(optimalSchedule.offerIfBetter(best)).isFalse();
+        for (final Schedule schedule : schedules) {
+            Truth.assertThat(optimalSchedule.offerIfBetter(schedule)).isFalse();
+        }
+        Truth.assertThat(optimalSchedule.getSnapshot().getFingerprint()).isEqualTo(best.getFingerprint());
+    }
+
+    /**
+     * Asserts observers are told of an improvement on a thread other than the one offering it.
+     */
+    @Test
+    public void observersNotifiedOffSolverThread() throws InterruptedException {
+
+        setUp("ft06", 2);
+
+        final Schedule other = testSchedules.stream()
+                .filter(schedule -> schedule.getFingerprint() != optimal.getFingerprint()).findFirst().get();
+        final Comparator<Schedule> order = Comparator.comparing(Schedule::getMakespan)
+                .thenComparing(Schedule::getFingerprint);
+        final Schedule better = order.compare(optimal, other) < 0 ? optimal : other;
+        optimalSchedule.setOptimalScheduleWithoutNotifyingObservers(better == optimal ? other : optimal);
+
+        final AtomicReference<Thread> notifiedOn = new AtomicReference<>();
+        final CountDownLatch notified = new CountDownLatch(1);
+        optimalSchedule.addObserver(schedule -> {
+            notifiedOn.set(Thread.currentThread());
+            notified.countDown();
+        });
+
+        Truth.assertThat(optimalSchedule.offerIfBetter(better)).isTrue();
+
+        Truth.assertThat(notified.await(5, TimeUnit.SECONDS)).isTrue();
+        Truth.assertThat(notifiedOn.get()).isNotSameAs(Thread.currentThread());
+        Truth.assertThat(notifiedOn.get().getName()).isEqualTo("solver-dispatcher");
+    }
+
+    /**
+     * Asserts an improvement published from a solver task is delivered while every worker is still busy.
+     */
+    @Test
+    public void improvementsDeliveredWhileWorkersBusy() throws Exception {
+
+        setUp("ft06", 1);
+
+        try (final SolverRuntime solverRuntime = new SolverRuntime(1)) {
+
+            final ImprovementEventBus eventBus = new ImprovementEventBus(solverRuntime.getDispatcher());
+            final CountDownLatch delivered = new CountDownLatch(1);
+            eventBus.subscribe(schedule -> delivered.countDown());
+
+            final Future<Boolean> deliveredWhileBusy = solverRuntime.submit(() -> {
+                eventBus.publish(optimal);
+                return delivered.await(5, TimeUnit.SECONDS);
+            });
+
+            Truth.assertThat(deliveredWhileBusy.get()).isTrue();
+        }
+    }
+
+    /**
+     * Asserts publishing to a shut down dispatcher does not fail the publisher, the improvement stays pending and is
+     * coalesced with the next one dispatched.
+     */
+    @Test
+    public void shutDownDispatcherDropsImprovements() {
+
+        setUp("ft06", 1);
+
+        final List<Runnable> dispatches = new ArrayList<>();
+        final AtomicBoolean shutDown = new AtomicBoolean(true);
+        final ImprovementEventBus eventBus = new ImprovementEventBus(runnable -> {
+            if (shutDown.get()) {
+                throw new RejectedExecutionException("Shut down");
+            }
+            dispatches.add(runnable);
+        });
+        final List<Schedule> received = new ArrayList<>();
+        eventBus.subscribe(received::add);
+
+        eventBus.publish(optimal);
+        Truth.assertThat(dispatches).isEmpty();
+
+        shutDown.set(false);
+        eventBus.publish(optimal);
+        Truth.assertThat(dispatches).hasSize(1);
+        dispatches.remove(0).run();
+        Truth.assertThat(received).containsExactly(optimal);
+    }
+
+    /**
+     * Asserts a burst of improvements published while the dispatcher is busy is delivered once, with the latest.
+     */
+    @Test
+    public void burstOfImprovementsCoalesced() {
+
+        setUp("ft06", 10);
+
+        final List<Schedule> schedules = new ArrayList<>(testSchedules);
+        final List<Runnable> dispatches = new ArrayList<>();
+        final ImprovementEventBus eventBus = new ImprovementEventBus(dispatches::add);
+        final List<Schedule> received = new ArrayList<>();
+        eventBus.subscribe(received::add);
+
+        for (final Schedule schedule : schedules) {
+            eventBus.publish(schedule);
+        }
+
+        Truth.assertThat(dispatches).hasSize(1);
+        dispatches.remove(0).run();
+
+        Truth.assertThat(received).containsExactly(schedules.get(schedules.size() - 1));
+        Truth.assertThat(eventBus.getPublishedEvents()).isEqualTo((long) schedules.size());
+        Truth.assertThat(eventBus.getDeliveredEvents()).isEqualTo(1L);
+
+        eventBus.publish(optimal);
+
+        Truth.assertThat(dispatches).hasSize(1);
+        dispatches.remove(0).run();
+        Truth.assertThat(received).containsExactly(schedules.get(schedules.size() - 1), optimal).inOrder();
+    }
+}
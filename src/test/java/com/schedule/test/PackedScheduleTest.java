@@ -0,0 +1,153 @@
+package com.schedule.test;
+
+import com.google.common.truth.Truth;
+import com.schedule.core.Graphs.FeasibleSchedules.Model.Core.Edge;
+import com.schedule.core.Graphs.FeasibleSchedules.Model.Core.Operation;
+import com.schedule.core.Graphs.FeasibleSchedules.Model.Core.PackedSchedule;
+import com.schedule.core.Graphs.FeasibleSchedules.Model.Core.Schedule;
+import com.schedule.core.Graphs.FeasibleSchedules.Service.MakespanService;
+import com.schedule.test.Config.TestSetup;
+import org.junit.Test;
+
+/**
+ * Tests for {@link PackedSchedule}
+ */
+public class PackedScheduleTest extends TestSetup {
+
+    /** Benchmark instances to convert. */
+    private static final String[] BENCHMARKS = {"3x3", "4x4", "ft06", "ft10", "ft20", "la01", "la17", "abz6", "orb08",
+            "dmu05"};
+
+    /**
+     * Asserts packing a schedule and rebuilding a graph from it keeps machine sequences and makespan.
+     */
+    @Test
+    public void roundTripConversion() {
+
+        for (final String benchmark : BENCHMARKS) {
+
+            final Schedule schedule = schedulesBuilder.generateStartingSchedules(benchmark, 1).iterator().next();
+            final PackedSchedule packedSchedule = PackedSchedule.fromSchedule(schedule);
+
+            final Schedule rebuilt = packedSchedule.toSchedule();
+            scheduleService.calculateScheduleData(rebuilt);
+
+            Truth.assertThat(rebuilt.getMakespan()).isEqualTo(schedule.getMakespan());
+            Truth.assertThat(PackedSchedule.fromSchedule(rebuilt).hasSameMachineSequences(packedSchedule)).isTrue();
+        }
+    }
+
+    /**
+     * Asserts switching edges through the schedule keeps the packed mirror in step with the graph.
+     */
+    @Test
+    public void switchEdgeKeepsMirrorInStep() {
+
+        setUp("ft10", 1);
+
+        for (final Edge edge : optimal.getAllMachineEdges()) {
+
+            scheduleService.switchEdge(optimal, edge);
+
+            Truth.assertThat(optimal.getPackedSchedule().hasSameMachineSequences(PackedSchedule.fromSchedule(optimal)))
+                    .isTrue();
+
+            scheduleService.switchEdge(optimal, edge);
+        }
+    }
+
+    /**
+     * Asserts machine positions follow switched edges and order queries agree with walking the machine sequence.
+     */
+    @Test
+    public void machinePositionsFollowSwitchedEdges() {
+
+        setUp("ft10", 1);
+
+        for (final Edge edge : optimal.getAllMachineEdges()) {
+
+            scheduleService.switchEdge(optimal, edge);
+
+            final PackedSchedule rebuilt = PackedSchedule.fromSchedule(optimal);
+            for (final Operation operation : optimal.getAllVertices()) {
+                Truth.assertThat(optimal.getPackedSchedule().getMachinePosition(operation.getId()))
+                        .isEqualTo(rebuilt.getMachinePosition(operation.getId()));
+            }
+
+            final Operation from = edge.getOperationFrom();
+            final Operation to = edge.getOperationTo();
+            Truth.assertThat(scheduleService.isInOrder(optimal, from.getId(), to.getId()))
+                    .isEqualTo(scheduleService.isInOrder(from, to));
+            Truth.assertThat(scheduleService.isInOrder(optimal, to.getId(), from.getId()))
+                    .isEqualTo(scheduleService.isInOrder(to, from));
+
+            scheduleService.switchEdge(optimal, edge);
+        }
+    }
+
+    /**
+     * Asserts the fingerprint updated by each switch matches a freshly packed one and flipping back restores it.
+     */
+    @Test
+    public void fingerprintFollowsSwitchedEdges() {
+
+        setUp("ft10", 1);
+
+        final long fingerprint = optimal.getFingerprint();
+        for (final Edge edge : optimal.getAllMachineEdges()) {
+
+            scheduleService.switchEdge(optimal, edge);
+
+            Truth.assertThat(optimal.getFingerprint()).isNotEqualTo(fingerprint);
+            Truth.assertThat(optimal.getFingerprint()).isEqualTo(PackedSchedule.fromSchedule(optimal).getFingerprint());
+
+            scheduleService.switchEdge(optimal, edge);
+
+            Truth.assertThat(optimal.getFingerprint()).isEqualTo(fingerprint);
+        }
+    }
+
+    /**
+     * Asserts the topological order repaired by each switch stays valid and detects the switches closing a cycle.
+     */
+    @Test
+    public void topologicalOrderRepairedAcrossSwitches() {
+
+        final MakespanService makespanService = new MakespanService();
+
+        for (final Schedule schedule : schedulesBuilder.generateStartingSchedules("ft10", 5)) {
+
+            for (final Edge edge : schedule.getAllMachineEdges()) {
+
+                scheduleService.switchEdge(schedule, edge);
+
+                final PackedSchedule incremental = schedule.getPackedSchedule();
+                final PackedSchedule full = PackedSchedule.fromSchedule(schedule);
+                makespanService.calculateMakespan(full);
+
+                Truth.assertThat(incremental.isAcyclic()).isEqualTo(full.isAcyclic());
+                Truth.assertThat(incremental.isOrdered()).isEqualTo(full.isAcyclic());
+                if (full.isAcyclic()) {
+
+                    Truth.assertThat(schedule.getMakespan()).isEqualTo(full.getMakespan());
+
+                    final int[] order = incremental.getTopologicalOrder();
+                    final int[] positions = incremental.getTopologicalPositions();
+                    for (int id = 0; id < incremental.getNumOperations(); id++) {
+
+                        Truth.assertThat(order[positions[id]]).isEqualTo(id);
+                        for (final int successor : new int[]{incremental.getJobSuccessor(id),
+                                incremental.getMachineSuccessor(id)}) {
+                            if (successor != PackedSchedule.NONE) {
+                                Truth.assertThat(positions[id]).isLessThan(positions[successor]);
+                            }
+                        }
+                    }
+                }
+
+                scheduleService.switchEdge(schedule, edge);
+                scheduleService.updateScheduleData(schedule);
+            }
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.schedule.test;
 
+import com.google.common.truth.Truth;
+import com.schedule.core.Graphs.FeasibleSchedules.Model.Core.Schedule;
 import com.schedule.core.Graphs.FeasibleSchedules.Service.FireflyService;
 import com.schedule.core.Graphs.FeasibleSchedules.Service.SAFAService;
 import com.schedule.core.Graphs.FeasibleSchedules.Service.SimulatedAnnealingService;
@@ -7,6 +9,10 @@ import com.schedule.test.Config.TestSetup;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Test for Simulated Annealing-Firefly Algorithm service methods.
  */
@@ -32,7 +38,32 @@ public class SAFAServiceTest extends TestSetup {
 
         optimalSchedule.setOptimalScheduleWithoutNotifyingObservers(optimal);
 
-        safaService.executeSimulatedAnnealingFirefly(testSchedules);
+        final Schedule result = safaService.executeSimulatedAnnealingFirefly(testSchedules).join();
+
+        Truth.assertThat(result.getMakespan()).isAtMost(optimal.getMakespan());
+        Truth.assertThat(safaService.getCompletion().isDone()).isTrue();
+    }
+
+    /**
+     * Asserts SAFA completes as soon as it has no threads left, and refuses restarts afterwards.
+     */
+    @Test
+    public void SAFACompletesWithoutPolling() {
+
+        setUp("ft06", 1);
+
+        optimalSchedule.setOptimalScheduleWithoutNotifyingObservers(optimal);
+
+        final Set<Schedule> schedules = new HashSet<>();
+        schedules.add(optimalSchedule.getOptimalSchedule());
+
+        final CompletableFuture<Schedule> completion = safaService.executeSimulatedAnnealingFirefly(schedules);
+
+        Truth.assertThat(completion.isDone()).isTrue();
+        Truth.assertThat(completion.join().getFingerprint()).isEqualTo(optimal.getFingerprint());
+
+        safaService.update(optimal);
+        Truth.assertThat(safaService.getRestartsInFlight()).isEqualTo(0);
     }
 
     @Test
@@ -2,15 +2,24 @@ package com.schedule.test;
 
 
 import com.google.common.truth.Truth;
+import com.schedule.core.Graphs.FeasibleSchedules.Config.FileDataPaths;
 import com.schedule.core.Graphs.FeasibleSchedules.Model.Core.Edge;
+import com.schedule.core.Graphs.FeasibleSchedules.Model.Core.EndVertex;
 import com.schedule.core.Graphs.FeasibleSchedules.Model.Core.Operation;
+import com.schedule.core.Graphs.FeasibleSchedules.Model.Core.PackedSchedule;
+import com.schedule.core.Graphs.FeasibleSchedules.Model.Core.Schedule;
+import com.schedule.core.Graphs.FeasibleSchedules.Service.MakespanService;
+import com.schedule.core.Graphs.FeasibleSchedules.Wrapper.CriticalPath;
+import com.schedule.core.Graphs.FeasibleSchedules.Wrapper.MoveJournal;
 import com.schedule.core.Graphs.FeasibleSchedules.Wrapper.SchedulePaths;
+import com.schedule.core.Graphs.FeasibleSchedules.Wrapper.ScheduleSnapshot;
 import com.schedule.test.Config.TestSetup;
 import com.schedule.test.Config.TestDataPaths;
 import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.util.*;
 
 public class ScheduleServiceTest extends TestSetup {
@@ -70,6 +79,365 @@ public class ScheduleServiceTest extends TestSetup {
         Truth.assertThat(makespan).isEqualTo(1799);
     }
 
+    /**
+     * Asserts the makespan kernel agrees with a longest path pass over the topological sort on every benchmark.
+     */
+    @Test
+    public void calculateMakespanMatchesTopologicalOrderOnBenchmarks() {
+
+        final File[] benchmarks = new File(FileDataPaths.BENCHMARK_INSTANCES_PATH).listFiles();
+
+        for (final File benchmark : benchmarks) {
+
+            for (final Schedule schedule : schedulesBuilder.generateStartingSchedules(benchmark.getName(), 5)) {
+
+                final int[] completion = new int[schedule.getNumJobs() * schedule.getNumMachines() + 1];
+                for (final Operation operation : scheduleService.topologicalSort(schedule)) {
+
+                    if (operation instanceof EndVertex) {
+                        continue;
+                    }
+                    completion[operation.getId()] += operation.getProcessingTime();
+                    for (int slot = 0; slot < operation.getActiveEdgeSlots(); slot++) {
+
+                        final Edge edge = operation.getActiveEdge(slot);
+                        if (edge == null) {
+                            continue;
+                        }
+                        final Integer to = edge.getOperationTo().getId();
+                        completion[to] = Math.max(completion[to], completion[operation.getId()]);
+                    }
+                }
+
+                Truth.assertThat(scheduleService.calculateMakeSpan(schedule))
+                        .isEqualTo(completion[completion.length - 1]);
+            }
+        }
+    }
+
+    /**
+     * Asserts makespans after edge switches come from the packed mirror alone, agreeing with the graph, and that
+     * direct graph edits are only read back on a full recalculation.
+     */
+    @Test
+    public void makespanReadsPackedMirror() {
+
+        setUp("ft06", 1);
+
+        final List<Edge> edges = new ArrayList<>(optimal.getAllMachineEdges());
+        for (int index = 0; index < edges.size(); index += 5) {
+
+            final Edge edge = edges.get(index);
+            if (!scheduleService.isSwitchFeasible(optimal, edge)) {
+                continue;
+            }
+            scheduleService.switchEdge(optimal, edge);
+
+            final Schedule rebuilt = ScheduleSnapshot.of(optimal).toSchedule();
+            Truth.assertThat(scheduleService.calculateMakeSpan(optimal))
+                    .isEqualTo(scheduleService.calculateMakeSpan(rebuilt));
+            Truth.assertThat(optimal.getFingerprint()).isEqualTo(rebuilt.getFingerprint());
+        }
+
+        //Graph only switch leaves the mirror behind until the graph is read back
+        final long fingerprint = optimal.getFingerprint();
+        final Integer makespan = optimal.getMakespan();
+        scheduleService.switchEdge(optimal.getAllMachineEdges().iterator().next());
+
+        Truth.assertThat(optimal.getFingerprint()).isEqualTo(fingerprint);
+        Truth.assertThat(scheduleService.calculateMakeSpan(optimal)).isEqualTo(makespan);
+
+        scheduleService.calculateScheduleData(optimal);
+        Truth.assertThat(optimal.getFingerprint()).isNotEqualTo(fingerprint);
+        Truth.assertThat(optimal.getFingerprint()).isEqualTo(ScheduleSnapshot.of(optimal).getFingerprint());
+    }
+
+    /**
+     * Asserts heads, tails and makespan updated around each swapped pair match a full calculation.
+     */
+    @Test
+    public void incrementalHeadsAndTailsMatchFullCalculation() {
+
+        setUp("ft10", 1);
+
+        final MakespanService makespanService = new MakespanService();
+
+        for (final Edge edge : optimal.getAllMachineEdges()) {
+
+            scheduleService.switchEdge(optimal, edge);
+
+            final PackedSchedule incremental = optimal.getPackedSchedule();
+            final PackedSchedule full = PackedSchedule.fromSchedule(optimal);
+            makespanService.calculateMakespan(full);
+
+            Truth.assertThat(incremental.isAcyclic()).isEqualTo(full.isAcyclic());
+            if (full.isAcyclic()) {
+
+                Truth.assertThat(optimal.getMakespan()).isEqualTo(full.getMakespan());
+                Truth.assertThat(incremental.getHeads()).isEqualTo(full.getHeads());
+                Truth.assertThat(incremental.getTails()).isEqualTo(full.getTails());
+            }
+
+            scheduleService.switchEdge(optimal, edge);
+            scheduleService.updateScheduleData(optimal);
+        }
+    }
+
+    /**
+     * Asserts what-if evaluation of a switch matches flipping the edge, bounds the estimate and leaves the schedule
+     * untouched.
+     */
+    @Test
+    public void evaluateMakespanAfterSwitchMatchesFlip() {
+
+        setUp("ft10", 1);
+
+        final Integer makespan = optimal.getMakespan();
+        for (final Edge edge : optimal.getAllMachineEdges()) {
+
+            final int estimate = scheduleService.estimateMakespanAfterSwitch(optimal, edge);
+            final int exact = scheduleService.evaluateMakespanAfterSwitch(optimal, edge);
+
+            Truth.assertThat(optimal.getMakespan()).isEqualTo(makespan);
+
+            scheduleService.switchEdge(optimal, edge);
+            final Integer flipped = scheduleService.calculateMakeSpan(optimal);
+            scheduleService.switchEdge(optimal, edge);
+            scheduleService.calculateMakeSpan(optimal);
+
+            Truth.assertThat(exact).isEqualTo(flipped);
+            Truth.assertThat(estimate).isAtMost(exact);
+        }
+    }
+
+    /**
+     * Asserts switching an edge leaves longest paths stale until they are asked for.
+     */
+    @Test
+    public void longestPathsCalculatedOnDemand() {
+
+        setUp("ft10", 1);
+
+        Truth.assertThat(optimal.hasCurrentLongestPaths()).isFalse();
+        final List<Set<Edge>> longestPaths = optimal.getLongestPaths();
+        Truth.assertThat(optimal.hasCurrentLongestPaths()).isTrue();
+
+        final Edge edge = optimal.getLongestPathArray().stream().filter(Edge::isMachinePath).findFirst().get();
+        scheduleService.switchEdge(optimal, edge);
+        Truth.assertThat(optimal.hasCurrentLongestPaths()).isFalse();
+
+        final List<Set<Edge>> switchedPaths = optimal.getLongestPaths();
+        Truth.assertThat(switchedPaths).isNotSameAs(longestPaths);
+        Truth.assertThat(switchedPaths.toString()).isEqualTo(scheduleService.calculatePaths(optimal).getLongestpaths()
+                                                                     .toString());
+    }
+
+    /**
+     * Asserts rolling back a journaled switch restores machine sequences, timing and longest paths.
+     */
+    @Test
+    public void rollbackRestoresScheduleState() {
+
+        setUp("ft10", 1);
+
+        final Integer makespan = optimal.getMakespan();
+        final long fingerprint = optimal.getFingerprint();
+        final List<Set<Edge>> longestPaths = optimal.getLongestPaths();
+        final int[] heads = optimal.getPackedSchedule().getHeads().clone();
+        final int[] tails = optimal.getPackedSchedule().getTails().clone();
+
+        final MoveJournal moveJournal = new MoveJournal();
+        for (final Edge edge : optimal.getAllMachineEdges()) {
+
+            moveJournal.begin(optimal);
+            scheduleService.switchEdge(optimal, edge, moveJournal);
+            scheduleService.updateScheduleData(optimal);
+            scheduleService.rollback(optimal, moveJournal);
+
+            Truth.assertThat(optimal.getMakespan()).isEqualTo(makespan);
+            Truth.assertThat(optimal.getFingerprint()).isEqualTo(fingerprint);
+            Truth.assertThat(optimal.getLongestPaths()).isSameAs(longestPaths);
+            Truth.assertThat(optimal.getPackedSchedule().getHeads()).isEqualTo(heads);
+            Truth.assertThat(optimal.getPackedSchedule().getTails()).isEqualTo(tails);
+            Truth.assertThat(optimal.getPackedSchedule().hasSameMachineSequences(PackedSchedule.fromSchedule(optimal)))
+                    .isTrue();
+        }
+    }
+
+    /**
+     * Asserts a fork holds the same machine sequences, timing and longest paths on its own graph, and stays unchanged
+     * when the original is switched.
+     */
+    @Test
+    public void forkCopiesScheduleIndependently() {
+
+        setUp("ft10", 1);
+
+        final Schedule fork = optimal.fork();
+        scheduleService.calculateScheduleData(fork);
+
+        Truth.assertThat(fork).isEqualTo(optimal);
+        Truth.assertThat(fork.getMakespan()).isEqualTo(optimal.getMakespan());
+        Truth.assertThat(fork.getLongestPaths().toString()).isEqualTo(optimal.getLongestPaths().toString());
+        Truth.assertThat(fork.getPackedSchedule().getHeads()).isEqualTo(optimal.getPackedSchedule().getHeads());
+
+        final long fingerprint = fork.getFingerprint();
+        final Edge edge = optimal.getAllMachineEdges().iterator().next();
+        scheduleService.switchEdge(optimal, edge);
+
+        Truth.assertThat(fork.getFingerprint()).isEqualTo(fingerprint);
+        for (final Edge forkEdge : fork.getAllMachineEdges()) {
+            Truth.assertThat(fork.getOperation(forkEdge.getOperationFrom().getId()))
+                    .isSameAs(forkEdge.getOperationFrom());
+        }
+
+        //Forking back into the preallocated copy reuses its edges
+        optimal.forkInto(fork);
+        Truth.assertThat(fork.getFingerprint()).isEqualTo(optimal.getFingerprint());
+        Truth.assertThat(fork.getPackedSchedule().hasSameMachineSequences(PackedSchedule.fromSchedule(fork))).isTrue();
+    }
+
+    /**
+     * Asserts the feasibility check of a switch agrees with the acyclicity found by switching, on starting schedules
+     * where many switches close a cycle.
+     */
+    @Test
+    public void isSwitchFeasibleMatchesSwitching() {
+
+        for (final Schedule schedule : schedulesBuilder.generateStartingSchedules("ft10", 5)) {
+
+            int infeasible = 0;
+            for (final Edge edge : schedule.getAllMachineEdges()) {
+
+                final boolean feasible = scheduleService.isSwitchFeasible(schedule, edge);
+
+                scheduleService.switchEdge(schedule, edge);
+                Truth.assertThat(schedule.getPackedSchedule().isAcyclic()).isEqualTo(feasible);
+                scheduleService.switchEdge(schedule, edge);
+                scheduleService.updateScheduleData(schedule);
+
+                if (!feasible) {
+                    infeasible++;
+                }
+            }
+            LOG.debug("Infeasible switches: {}", infeasible);
+        }
+    }
+
+    /**
+     * Asserts the single critical path is one of the enumerated longest paths and splits into machine blocks.
+     */
+    @Test
+    public void calculateCriticalPath() {
+
+        setUp("ft10", 1);
+
+        final CriticalPath criticalPath = scheduleService.calculateCriticalPath(optimal);
+
+        int length = 0;
+        for (final int id : criticalPath.getOperations()) {
+            length += optimal.getPackedSchedule().getProcessingTime(id);
+        }
+        Truth.assertThat(length).isEqualTo(optimal.getMakespan());
+
+        for (final int[] block : criticalPath.getBlocks()) {
+            for (int index = 1; index < block.length; index++) {
+                Truth.assertThat(optimal.getPackedSchedule().getMachineSuccessor(block[index - 1]))
+                        .isEqualTo(block[index]);
+            }
+        }
+
+        Truth.assertThat(optimal.getLongestPaths())
+                .contains(scheduleService.getCriticalPathEdges(optimal, criticalPath));
+    }
+
+    /**
+     * Asserts the path limit caps enumeration and a limit of 1 stores the critical path.
+     */
+    @Test
+    public void calculatePathsWithLimit() {
+
+        setUp("ft10", 1);
+
+        scheduleService.setMaxLongestPaths(2);
+        scheduleService.calculatePaths(optimal);
+        Truth.assertThat(optimal.getLongestPaths().size()).isAtMost(2);
+
+        scheduleService.setMaxLongestPaths(1);
+        scheduleService.calculatePaths(optimal);
+        Truth.assertThat(optimal.getLongestPaths()).containsExactly(
+                scheduleService.getCriticalPathEdges(optimal, scheduleService.calculateCriticalPath(optimal)));
+    }
+
+    /**
+     * Asserts graph traversals complete on a 100x20 instance, and on two jobs of 5000 operations whose chains nest a
+     * recursive search thousands of frames deep, when run on a thread with a small stack.
+     */
+    @Test
+    public void traversalsScaleOnSmallStack() throws Throwable {
+
+        final Throwable[] failure = new Throwable[1];
+        final Thread thread = new Thread(null, () -> {
+            try {
+                traverseLargeSchedule("scale100x20", 100 * 20);
+                traverseLargeSchedule("chain2x5000", 2 * 5000);
+            } catch (final Throwable throwable) {
+                failure[0] = throwable;
+            }
+        }, "small-stack", 128 * 1024);
+
+        thread.start();
+        thread.join();
+
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+    }
+
+    /**
+     * Builds a schedule of a large instance and runs each graph traversal over it.
+     *
+     * @param instance
+     *         Benchmark instance.
+     * @param operations
+     *         Number of operations of the instance.
+     */
+    private void traverseLargeSchedule(final String instance, final int operations) {
+
+        final Schedule schedule = schedulesBuilder.generateStartingSchedules(instance, 1).iterator().next();
+        Truth.assertThat(schedule.getAllVertices()).hasSize(operations);
+        Truth.assertThat(schedule.toString()).isNotEmpty();
+        Truth.assertThat(feasibilityService.findCycleEdge(schedule).isPresent()).isFalse();
+
+        //Search from graph rather than maintained order
+        schedule.getPackedSchedule().setOrdered(false);
+        final List<Operation> sorted = new ArrayList<>(scheduleService.topologicalSort(schedule));
+        Truth.assertThat(sorted).containsAllIn(schedule.getAllVertices());
+        Truth.assertThat(sorted).containsNoDuplicates();
+        final Map<Operation, Integer> positions = new HashMap<>();
+        for (final Operation operation : sorted) {
+            positions.put(operation, positions.size());
+        }
+        for (final Operation operation : sorted) {
+            for (int slot = 0; slot < operation.getActiveEdgeSlots(); slot++) {
+
+                final Edge edge = operation.getActiveEdge(slot);
+                if (edge != null) {
+                    Truth.assertThat(positions.get(edge.getOperationTo())).isGreaterThan(positions.get(operation));
+                }
+            }
+        }
+
+        scheduleService.setMaxLongestPaths(10);
+        final SchedulePaths schedulePaths = scheduleService.calculatePaths(schedule);
+        Truth.assertThat(schedulePaths.isFeasible()).isTrue();
+        Truth.assertThat(schedulePaths.getLongestpaths()).isNotEmpty();
+
+        final ArrayList<Edge> longestPathEdges = new ArrayList<>();
+        schedulePaths.getLongestpaths().forEach(longestPathEdges::addAll);
+        Truth.assertThat(scheduleService.findMostVisitedEdge(longestPathEdges).isPresent()).isTrue();
+    }
+
     @Test
     public void topologicalSort() {
 
@@ -2,14 +2,22 @@ package com.schedule.test;
 
 import com.google.common.truth.Truth;
 import com.schedule.core.Graphs.FeasibleSchedules.Model.Core.Edge;
+import com.schedule.core.Graphs.FeasibleSchedules.Model.Core.Schedule;
 import com.schedule.core.Graphs.FeasibleSchedules.Service.SimulatedAnnealingService;
+import com.schedule.core.Graphs.FeasibleSchedules.Threads.SolverRuntime;
 import com.schedule.test.Config.TestSetup;
 import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
 
 public class SimulatedAnnealingServiceTest extends TestSetup {
 
@@ -43,6 +51,56 @@ public class SimulatedAnnealingServiceTest extends TestSetup {
 
     }
 
+    /**
+     * Asserts SA runs one at a time, a new schedule cancelling the run in flight and only the latest one starting
+     * after it.
+     */
+    @Test
+    public void SARunsOneAtATime() throws Exception {
+
+        setUp("4x4", 1);
+
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        final List<Schedule> runs = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch finished = new CountDownLatch(2);
+
+        try (final SolverRuntime solverRuntime = new SolverRuntime(4)) {
+
+            final SimulatedAnnealingService service = new SimulatedAnnealingService(optimalSchedule, solverRuntime) {
+                @Override
+                public void iterateAndUpdateOptimal(final Schedule schedule, final BooleanSupplier cancelled) {
+
+                    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    try {
+                        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(200);
+                        while (!cancelled.getAsBoolean() && System.nanoTime() < deadline) {
+                            Thread.sleep(1);
+                        }
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        inFlight.decrementAndGet();
+                        runs.add(schedule);
+                        finished.countDown();
+                    }
+                }
+            };
+
+            final List<Schedule> schedules = new ArrayList<>();
+            for (int run = 0; run < 10; run++) {
+                schedules.add(optimal.fork());
+                service.executeSimulatedAnnealing(schedules.get(run));
+            }
+
+            Truth.assertThat(finished.await(10, TimeUnit.SECONDS)).isTrue();
+            Truth.assertThat(maxInFlight.get()).isEqualTo(1);
+            Truth.assertThat(runs).hasSize(2);
+            Truth.assertThat(runs.get(0) == schedules.get(0)).isTrue();
+            Truth.assertThat(runs.get(1) == schedules.get(9)).isTrue();
+        }
+    }
+
     @Test
     public void testTabuList() {
 
@@ -0,0 +1,145 @@
+package com.schedule.test;
+
+import com.google.common.truth.Truth;
+import com.schedule.core.Graphs.FeasibleSchedules.DataGenerator.SchedulesBuilder;
+import com.schedule.core.Graphs.FeasibleSchedules.Model.Core.Schedule;
+import com.schedule.core.Graphs.FeasibleSchedules.Model.Other.ExecutionMode;
+import com.schedule.core.Graphs.FeasibleSchedules.Model.Other.SolverRandom;
+import com.schedule.core.Graphs.FeasibleSchedules.Threads.SolverRuntime;
+import com.schedule.test.Config.TestSetup;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * Tests for {@link SolverRandom}
+ */
+public class SolverRandomTest extends TestSetup {
+
+    /** Number of tasks drawing. */
+    private static final int TASKS = 16;
+
+    /** Number of draws per task. */
+    private static final int DRAWS = 8;
+
+    /**
+     * Asserts tasks draw the same numbers from the same seed whatever the number of workers.
+     */
+    @Test
+    public void streamsIndependentOfParallelism() throws Exception {
+
+        Truth.assertThat(drawPerTask(1, 42L)).isEqualTo(drawPerTask(4, 42L));
+        Truth.assertThat(drawPerTask(4, 42L)).isNotEqualTo(drawPerTask(4, 43L));
+    }
+
+    /**
+     * Asserts tasks on the shared master draw from one split per task whatever the number of workers, fresh workers
+     * taking no further streams from it.
+     */
+    @Test
+    public void sharedStreamsIndependentOfParallelism() throws Exception {
+
+        final SolverRandom shared = SolverRandom.getShared();
+        for (final int parallelism : new int[]{1, 4}) {
+
+            final SolverRandom replica = new SolverRandom(shared.getSeed());
+            final long splits = shared.getSplits();
+            for (long split = 0; split < splits; split++) {
+                replica.split();
+            }
+
+            final List<List<Double>> expected = new ArrayList<>();
+            for (int task = 0; task < TASKS; task++) {
+                final SplittableRandom stream = replica.split();
+                final List<Double> draws = new ArrayList<>();
+                for (int draw = 0; draw < DRAWS; draw++) {
+                    draws.add(stream.nextDouble());
+                }
+                expected.add(draws);
+            }
+
+            try (final SolverRuntime solverRuntime = new SolverRuntime(parallelism)) {
+                Truth.assertThat(drawPerTask(solverRuntime)).isEqualTo(expected);
+            }
+            Truth.assertThat(shared.getSplits()).isEqualTo(splits + TASKS);
+        }
+    }
+
+    /**
+     * Asserts random starting populations are reproduced from the same seed.
+     */
+    @Test
+    public void startingSchedulesReproducibleFromSeed() {
+
+        final Set<Long> first = fingerprints(new SchedulesBuilder(new SolverRandom(7L))
+                                                     .generateStartingSchedules("ft06", 10));
+        final Set<Long> second = fingerprints(new SchedulesBuilder(new SolverRandom(7L))
+                                                      .generateStartingSchedules("ft06", 10));
+
+        Truth.assertThat(first).hasSize(10);
+        Truth.assertThat(second).isEqualTo(first);
+    }
+
+    /**
+     * Runs tasks each drawing random doubles through {@link com.schedule.core.Graphs.FeasibleSchedules.Service
+     * .ScheduleService#randomDouble()}.
+     *
+     * @param parallelism
+     *         Number of workers.
+     * @param seed
+     *         Master seed.
+     * @return Draws of each task, in submission order.
+     */
+    private List<List<Double>> drawPerTask(final int parallelism, final long seed) throws Exception {
+
+        try (final SolverRuntime solverRuntime = new SolverRuntime(parallelism, ExecutionMode.WORK_STEALING,
+                                                                    new SolverRandom(seed))) {
+            return drawPerTask(solverRuntime);
+        }
+    }
+
+    /**
+     * Runs tasks on runtime, each drawing random doubles through {@link com.schedule.core.Graphs.FeasibleSchedules
+     * .Service.ScheduleService#randomDouble()}.
+     *
+     * @param solverRuntime
+     *         {@link SolverRuntime}
+     * @return Draws of each task, in submission order.
+     */
+    private List<List<Double>> drawPerTask(final SolverRuntime solverRuntime) throws Exception {
+
+        final List<Callable<List<Double>>> tasks = new ArrayList<>();
+        for (int task = 0; task < TASKS; task++) {
+            tasks.add(() -> {
+                final List<Double> draws = new ArrayList<>();
+                for (int draw = 0; draw < DRAWS; draw++) {
+                    draws.add(scheduleService.randomDouble());
+                }
+                return draws;
+            });
+        }
+
+        final List<List<Double>> results = new ArrayList<>();
+        for (final Future<List<Double>> result : solverRuntime.invokeAll(tasks)) {
+            results.add(result.get());
+        }
+        return results;
+    }
+
+    /**
+     * Collects fingerprints of schedules.
+     *
+     * @param schedules
+     *         Set of {@link Schedule}
+     * @return Fingerprints.
+     */
+    private Set<Long> fingerprints(final Set<Schedule> schedules) {
+        return schedules.stream().map(Schedule::getFingerprint).collect(Collectors.toSet());
+    }
+}
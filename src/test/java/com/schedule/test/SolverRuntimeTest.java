@@ -0,0 +1,172 @@
+package com.schedule.test;
+
+import com.google.common.truth.Truth;
+import com.schedule.core.Graphs.FeasibleSchedules.Model.Core.Schedule;
+import com.schedule.core.Graphs.FeasibleSchedules.Model.Other.ExecutionMode;
+import com.schedule.core.Graphs.FeasibleSchedules.Service.LocalSearchService;
+import com.schedule.core.Graphs.FeasibleSchedules.Threads.SolverRuntime;
+import com.schedule.test.Config.TestSetup;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests for {@link SolverRuntime}
+ */
+public class SolverRuntimeTest extends TestSetup {
+
+    /**
+     * Asserts tasks run concurrently on every worker of the runtime.
+     */
+    @Test
+    public void tasksRunOnAllWorkers() throws Exception {
+
+        final int parallelism = 4;
+        try (final SolverRuntime solverRuntime = new SolverRuntime(parallelism)) {
+
+            Truth.assertThat(solverRuntime.getParallelism()).isEqualTo(parallelism);
+
+            //Each task waits for all others to start, so they only complete if all workers run at once
+            final CountDownLatch started = new CountDownLatch(parallelism);
+            final List<Callable<String>> tasks = new ArrayList<>();
+            for (int task = 0; task < parallelism; task++) {
+                tasks.add(() -> {
+                    started.countDown();
+                    Truth.assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+                    return Thread.currentThread().getName();
+                });
+            }
+
+            for (final Future<String> result : solverRuntime.invokeAll(tasks)) {
+                Truth.assertThat(result.get()).startsWith("solver-");
+            }
+        }
+    }
+
+    /**
+     * Asserts closing waits for submitted tasks, and the shared runtime is replaced once shut down.
+     */
+    @Test
+    public void closeWaitsForSubmittedTasks() throws Exception {
+
+        final SolverRuntime solverRuntime = new SolverRuntime(1);
+        final Future<Integer> result = solverRuntime.submit(() -> {
+            Thread.sleep(100);
+            return 1;
+        });
+        solverRuntime.close();
+
+        Truth.assertThat(result.isDone()).isTrue();
+        Truth.assertThat(result.get()).isEqualTo(1);
+        Truth.assertThat(solverRuntime.isShutdown()).isTrue();
+
+        final SolverRuntime shared = SolverRuntime.getShared();
+        Truth.assertThat(SolverRuntime.getShared()).isSameAs(shared);
+        Truth.assertThat(shared.isShutdown()).isFalse();
+    }
+
+    /**
+     * Asserts local search over a population completes on a supplied runtime, leaving it running.
+     */
+    @Test
+    public void localSearchRunsOnSuppliedRuntime() {
+
+        setUp("ft06", 10);
+
+        try (final SolverRuntime solverRuntime = new SolverRuntime(3)) {
+
+            final LocalSearchService localSearchService = new LocalSearchService(solverRuntime);
+            final Set<Schedule> localOptima = localSearchService.executeLocalSearch(testSchedules);
+
+            Truth.assertThat(localOptima).isNotEmpty();
+            Truth.assertThat(solverRuntime.isShutdown()).isFalse();
+        }
+    }
+
+    /**
+     * Asserts virtual thread mode runs many more tasks than its parallelism without evaluating more at once, on
+     * platform threads where the JDK has no virtual threads.
+     */
+    @Test
+    public void virtualThreadModeCapsEvaluation() throws Exception {
+
+        final int parallelism = 2;
+        try (final SolverRuntime solverRuntime = new SolverRuntime(parallelism, ExecutionMode.VIRTUAL_THREADS)) {
+
+            final boolean virtualThreads = solverRuntime.getExecutionMode() == ExecutionMode.VIRTUAL_THREADS;
+            Truth.assertThat(virtualThreads).isEqualTo(isVirtualThreadJdk());
+
+            final AtomicInteger evaluating = new AtomicInteger();
+            final AtomicInteger maxEvaluating = new AtomicInteger();
+            final List<Callable<Integer>> tasks = new ArrayList<>();
+            for (int task = 0; task < 200; task++) {
+                final int value = task;
+                tasks.add(() -> {
+                    maxEvaluating.accumulateAndGet(evaluating.incrementAndGet(), Math::max);
+                    Thread.sleep(1);
+                    evaluating.decrementAndGet();
+                    return value;
+                });
+            }
+
+            final List<Future<Integer>> results = solverRuntime.invokeAll(tasks);
+            for (int task = 0; task < results.size(); task++) {
+                Truth.assertThat(results.get(task).get()).isEqualTo(task);
+            }
+            Truth.assertThat(maxEvaluating.get()).isAtMost(parallelism);
+        }
+    }
+
+    /**
+     * Asserts virtual thread mode runs tasks on virtual threads without resizing the JDK carrier threads, and that the
+     * shared runtime picks the mode up from its system property. Needs JDK 21 or later, the build runs it with
+     * {@code -PvirtualThreads}.
+     */
+    @Test
+    public void virtualThreadModeRunsOnVirtualThreads() throws Exception {
+
+        Assume.assumeTrue("Virtual threads need JDK 21 or later", isVirtualThreadJdk());
+
+        final String carrierParallelism = System.getProperty("jdk.virtualThreadScheduler.parallelism");
+        try (final SolverRuntime solverRuntime = new SolverRuntime(2, ExecutionMode.VIRTUAL_THREADS)) {
+
+            Truth.assertThat(solverRuntime.getExecutionMode()).isEqualTo(ExecutionMode.VIRTUAL_THREADS);
+            Truth.assertThat(System.getProperty("jdk.virtualThreadScheduler.parallelism"))
+                    .isEqualTo(carrierParallelism);
+
+            final Future<Boolean> virtual = solverRuntime.submit(
+                    () -> (Boolean) Thread.class.getMethod("isVirtual").invoke(Thread.currentThread()));
+            final Future<String> name = solverRuntime.submit(() -> Thread.currentThread().getName());
+
+            Truth.assertThat(virtual.get()).isTrue();
+            Truth.assertThat(name.get()).startsWith("solver-virtual-");
+        }
+
+        if (ExecutionMode.VIRTUAL_THREADS.name().equals(System.getProperty(SolverRuntime.MODE_PROPERTY))) {
+            Truth.assertThat(SolverRuntime.getShared().getExecutionMode()).isEqualTo(ExecutionMode.VIRTUAL_THREADS);
+        }
+    }
+
+    /**
+     * Checks whether the running JDK has virtual threads.
+     *
+     * @return true/false
+     */
+    private boolean isVirtualThreadJdk() {
+
+        try {
+            Thread.class.getMethod("ofVirtual");
+            return true;
+        } catch (final NoSuchMethodException e) {
+            return false;
+        }
+    }
+}
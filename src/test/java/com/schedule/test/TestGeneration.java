@@ -1,6 +1,9 @@
 package com.schedule.test;
 
+import com.google.common.truth.Truth;
 import com.schedule.core.Graphs.FeasibleSchedules.Model.Core.Edge;
+import com.schedule.core.Graphs.FeasibleSchedules.Model.Core.Operation;
+import com.schedule.core.Graphs.FeasibleSchedules.Model.Core.ProblemInstance;
 import com.schedule.core.Graphs.FeasibleSchedules.Model.Core.Schedule;
 import com.schedule.test.Config.TestSetup;
 import org.junit.Test;
@@ -33,4 +36,44 @@ public class TestGeneration extends TestSetup {
             count++;
         }
     }
+
+    /**
+     * Asserts the id and job/machine indexes built with the tree template point at the graph operations.
+     */
+    @Test
+    public void generateOperationIndex() {
+
+        setUp("ft20", 1);
+
+        for (final Operation operation : optimal.getAllVertices()) {
+
+            Truth.assertThat(optimal.getOperation(operation.getId())).isSameAs(operation);
+            Truth.assertThat(optimal.locateOperation(operation.getJob(), operation.getMachine())).isSameAs(operation);
+        }
+    }
+
+    /**
+     * Asserts schedules of a benchmark share one instance holding the routings of their graphs.
+     */
+    @Test
+    public void generateSharedProblemInstance() {
+
+        setUp("ft10", 3);
+
+        final ProblemInstance problemInstance = schedulesBuilder.getProblemInstance("ft10");
+        for (final Schedule schedule : testSchedules) {
+
+            Truth.assertThat(schedule.getProblemInstance()).isSameAs(problemInstance);
+            Truth.assertThat(schedule.getPackedSchedule().getProblemInstance()).isSameAs(problemInstance);
+        }
+
+        for (final Operation operation : optimal.getAllVertices()) {
+
+            final int id = operation.getId();
+            Truth.assertThat(problemInstance.getJob(id)).isEqualTo(operation.getJob());
+            Truth.assertThat(problemInstance.getMachine(id)).isEqualTo(operation.getMachine());
+            Truth.assertThat(problemInstance.getProcessingTime(id)).isEqualTo(operation.getProcessingTime());
+            Truth.assertThat(problemInstance.getOperation(operation.getJob(), operation.getMachine())).isEqualTo(id);
+        }
+    }
 }